@@ -0,0 +1,78 @@
+package org.json.utils.csvUtils;
+
+import com.opencsv.CSVWriter;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * Appends records to the end of a CSV file without reading or rewriting its rows.
+ * Only the header is needed, and it comes from the {@link CsvFileIndex} cache, which is
+ * extended rather than dropped after the append. Rows are written by {@link CSVWriter} through
+ * a buffered writer over an append-mode channel, so quoting matches a full rewrite. The new
+ * rows are then added to the file's {@link CsvKeyIndex} sidecars. Callers hold the file's write
+ * lock.
+ */
+final class CsvAppender {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private CsvAppender() {
+    }
+
+    /**
+     * Appends one row per record. Values are taken in header order; missing columns are
+     * written as "" and columns not in the header are ignored, as with a rewrite.
+     * @param path File path
+     * @param records Records to append
+     * @return false if the file has no header line (nothing is written)
+     * @throws IOException if the file cannot be read or written
+     */
+    static boolean append(String path, List<? extends Map<String, String>> records) throws IOException {
+        CsvFileIndex index = CsvFileIndex.get(path, false);
+        CsvHeader header = index.header();
+        if (header == null) {
+            return false;
+        }
+        if (records.isEmpty()) {
+            return true;
+        }
+        Path file = Paths.get(path);
+        boolean newline = endsWithNewline(file);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            Writer out = new BufferedWriter(Channels.newWriter(channel, Charset.defaultCharset().newEncoder(), -1), BUFFER_SIZE);
+            try (CSVWriter writer = new CSVWriter(out)) {
+                if (!newline) {
+                    out.write(CSVWriter.DEFAULT_LINE_END);
+                }
+                String[] row = new String[header.size()];
+                for (Map<String, String> record : records) {
+                    for (int i = 0; i < row.length; i++) {
+                        row[i] = record.getOrDefault(header.name(i), "");
+                    }
+                    writer.writeNext(row);
+                }
+            }
+        }
+        long from = index.stamp().size() + (newline ? 0 : CSVWriter.DEFAULT_LINE_END.length());
+        CsvFileIndex.appended(path, index, records.size(), from);
+        CsvKeyIndex.appended(path, index.stamp(), from);
+        return true;
+    }
+
+    private static boolean endsWithNewline(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size == 0) {
+                return true;
+            }
+            ByteBuffer last = ByteBuffer.allocate(1);
+            channel.read(last, size - 1);
+            return last.get(0) == '\n';
+        }
+    }
+}
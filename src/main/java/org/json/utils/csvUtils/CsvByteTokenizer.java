@@ -0,0 +1,323 @@
+package org.json.utils.csvUtils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+/**
+ * Splits CSV rows straight out of a {@link ByteBuffer} (typically a {@code MappedByteBuffer})
+ * without decoding them. Each row is described by field slices (offset and length in the
+ * buffer), and a field becomes a {@code String} only when {@link #field(int)} is called.
+ * Quoting follows OpenCSV's default parser ({@link CsvQuoteStates}). Quotes, escapes, and
+ * line breaks inside quotes are removed or normalised to {@code \n} when a field is decoded.
+ * <pre>
+ * CsvByteTokenizer tokenizer = new CsvByteTokenizer(buffer);
+ * while (tokenizer.nextRow()) {
+ *     if (tokenizer.fieldEquals(2, "EUR")) {
+ *         use(tokenizer.field(0));
+ *     }
+ * }
+ * </pre>
+ * The buffer's position and limit bound the input; the buffer itself is only read with absolute
+ * gets. Instances are not thread-safe.
+ */
+public class CsvByteTokenizer {
+    private static final int[][] NEXT = CsvQuoteStates.NEXT;
+
+    private final ByteBuffer buffer;
+    private final boolean endOfInput;
+    private final Charset charset;
+    private int position;
+    private int rowStart;
+    private boolean incomplete;
+    private int count;
+    private int[] starts = new int[16];
+    private int[] ends = new int[16];
+    // fields without quotes or backslashes decode as they are
+    private boolean[] plain = new boolean[16];
+    private byte[] scratch = new byte[256];
+    private String lastValue;
+    private byte[] lastEncoded;
+
+    /**
+     * Tokenizes the remaining bytes of a buffer in the platform charset, like {@code FileReader}.
+     * @param buffer CSV bytes
+     */
+    public CsvByteTokenizer(ByteBuffer buffer) {
+        this(buffer, Charset.defaultCharset());
+    }
+
+    /**
+     * Tokenizes the remaining bytes of a buffer.
+     * @param buffer CSV bytes
+     * @param charset ASCII-compatible charset of the bytes
+     */
+    public CsvByteTokenizer(ByteBuffer buffer, Charset charset) {
+        this(buffer, true, charset);
+    }
+
+    /**
+     * @param endOfInput false if the buffer is one window of a longer input; a row running into
+     *                   the limit then stops the tokenizer with {@link #isIncomplete()} set
+     */
+    CsvByteTokenizer(ByteBuffer buffer, boolean endOfInput, Charset charset) {
+        this.buffer = buffer;
+        this.endOfInput = endOfInput;
+        this.charset = charset;
+        this.position = buffer.position();
+    }
+
+    /**
+     * Moves to the next row.
+     * @return true if a row was found
+     * @throws IOException if the input ends inside a quoted field
+     */
+    public boolean nextRow() throws IOException {
+        int limit = buffer.limit();
+        int p = position;
+        count = 0;
+        rowStart = p;
+        if (p >= limit) {
+            incomplete = !endOfInput;
+            return false;
+        }
+        int start = p;
+        int state = CsvQuoteStates.START;
+        boolean simple = true;
+        for (; p < limit; p++) {
+            int b = buffer.get(p) & 0xFF;
+            int next = NEXT[state][b];
+            if (next == CsvQuoteStates.START && b == ',') {
+                addField(start, p, simple);
+                start = p + 1;
+                simple = true;
+            } else if ((next & CsvQuoteStates.BOUNDARY) != 0) {
+                addField(start, p, simple);
+                position = p + 1;
+                return true;
+            } else if (next == CsvQuoteStates.START && b == '\r') {
+                if (p + 1 == limit && !endOfInput) {
+                    // the \n of a \r\n may be in the next window
+                    break;
+                }
+                addField(start, p, simple);
+                position = p + 1 < limit && buffer.get(p + 1) == '\n' ? p + 2 : p + 1;
+                return true;
+            } else if (b == '"' || b == '\\') {
+                simple = false;
+            }
+            state = next;
+        }
+        if (!endOfInput) {
+            count = 0;
+            incomplete = true;
+            return false;
+        }
+        if (CsvQuoteStates.inQuotes(CsvQuoteStates.resolve(state))) {
+            throw new IOException("Unterminated quoted field in CSV row starting at byte " + rowStart);
+        }
+        addField(start, limit, simple);
+        position = limit;
+        return true;
+    }
+
+    /**
+     * @return Number of fields in the current row
+     */
+    public int fieldCount() {
+        return count;
+    }
+
+    /**
+     * @param i Field index
+     * @return Buffer index of the field's first raw byte (including any opening quote)
+     */
+    public int fieldOffset(int i) {
+        checkIndex(i);
+        return starts[i];
+    }
+
+    /**
+     * @param i Field index
+     * @return Number of raw bytes of the field (including quotes and escapes)
+     */
+    public int fieldLength(int i) {
+        checkIndex(i);
+        return ends[i] - starts[i];
+    }
+
+    /**
+     * Decodes one field.
+     * @param i Field index
+     * @return Field value with quoting removed
+     */
+    public String field(int i) {
+        checkIndex(i);
+        int start = starts[i];
+        int length = ends[i] - start;
+        if (plain[i]) {
+            if (buffer.hasArray()) {
+                return new String(buffer.array(), buffer.arrayOffset() + start, length, charset);
+            }
+            byte[] bytes = scratch(length);
+            buffer.get(start, bytes, 0, length);
+            return new String(bytes, 0, length, charset);
+        }
+        return unquote(start, ends[i]);
+    }
+
+    /**
+     * Decodes every field of the current row.
+     * @return Field values
+     */
+    public String[] fields() {
+        String[] values = new String[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = field(i);
+        }
+        return values;
+    }
+
+    /**
+     * Compares a field with a value, on the raw bytes when the field has no quoting.
+     * @param i Field index
+     * @param value Value to compare with
+     * @return true if the decoded field equals the value
+     */
+    public boolean fieldEquals(int i, String value) {
+        checkIndex(i);
+        if (!plain[i]) {
+            return value.equals(field(i));
+        }
+        if (value != lastValue) {
+            lastEncoded = value.getBytes(charset);
+            lastValue = value;
+        }
+        byte[] encoded = lastEncoded;
+        int start = starts[i];
+        if (ends[i] - start != encoded.length) {
+            return false;
+        }
+        for (int k = 0; k < encoded.length; k++) {
+            if (buffer.get(start + k) != encoded[k]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return Buffer index where the current (or unfinished) row starts
+     */
+    int rowStart() {
+        return rowStart;
+    }
+
+    /**
+     * @return true if the last {@link #nextRow()} ran into the end of a window before the row ended
+     */
+    boolean isIncomplete() {
+        return incomplete;
+    }
+
+    /**
+     * Removes quoting the way OpenCSV does: quotes toggle the quoted state, a doubled quote
+     * or a backslash before a quote, backslash or comma gives the literal character, any other
+     * backslash is dropped, and line breaks inside quotes become {@code \n}. A quote that is
+     * neither next to a comma nor within the first three characters of its line is kept, unless
+     * only whitespace precedes it in the field, which is then dropped.
+     */
+    private String unquote(int start, int end) {
+        byte[] out = scratch(end - start);
+        int n = 0;
+        boolean inQuotes = false;
+        boolean inField = false;
+        for (int p = start; p < end; p++) {
+            byte c = buffer.get(p);
+            if (c == '\\') {
+                inField = true;
+                if (p + 1 < end && (buffer.get(p + 1) == '"' || buffer.get(p + 1) == '\\' || buffer.get(p + 1) == ',')) {
+                    out[n++] = buffer.get(++p);
+                }
+            } else if (c == '"') {
+                if ((inQuotes || inField) && p + 1 < end && buffer.get(p + 1) == '"') {
+                    out[n++] = '"';
+                    p++;
+                } else {
+                    inQuotes = !inQuotes;
+                    if (midFieldQuote(p, end)) {
+                        if (n > 0 && isWhitespace(out, n)) {
+                            n = 0;
+                        } else {
+                            out[n++] = '"';
+                        }
+                    }
+                }
+                inField = !inField;
+            } else if (c == '\r' || c == '\n') {
+                out[n++] = '\n';
+                if (c == '\r' && p + 1 < end && buffer.get(p + 1) == '\n') {
+                    p++;
+                }
+                inField = false;
+            } else {
+                out[n++] = c;
+                inField = true;
+            }
+        }
+        return new String(out, 0, n, charset);
+    }
+
+    /**
+     * OpenCSV keeps a quote when it is past the third character of its line and neither the
+     * byte before nor the byte after it is a comma or the end of the line.
+     */
+    private boolean midFieldQuote(int p, int end) {
+        if (p - rowStart < 3 || p + 1 >= end) {
+            return false;
+        }
+        for (int k = p - 3; k < p; k++) {
+            byte b = buffer.get(k);
+            if (b == '\r' || b == '\n') {
+                return false;
+            }
+        }
+        byte next = buffer.get(p + 1);
+        return buffer.get(p - 1) != ',' && next != ',' && next != '\r' && next != '\n';
+    }
+
+    private static boolean isWhitespace(byte[] bytes, int length) {
+        for (int i = 0; i < length; i++) {
+            if (bytes[i] < 0 || !Character.isWhitespace(bytes[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void addField(int start, int end, boolean simple) {
+        if (count == starts.length) {
+            starts = Arrays.copyOf(starts, count * 2);
+            ends = Arrays.copyOf(ends, count * 2);
+            plain = Arrays.copyOf(plain, count * 2);
+        }
+        starts[count] = start;
+        ends[count] = end;
+        plain[count] = simple;
+        count++;
+    }
+
+    private byte[] scratch(int length) {
+        if (scratch.length < length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+        }
+        return scratch;
+    }
+
+    private void checkIndex(int i) {
+        if (i < 0 || i >= count) {
+            throw new IndexOutOfBoundsException("Field " + i + " of " + count);
+        }
+    }
+}
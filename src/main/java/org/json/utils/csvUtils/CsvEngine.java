@@ -0,0 +1,19 @@
+package org.json.utils.csvUtils;
+
+/**
+ * Parser behind {@link CsvRowCursor} and the queries built on it in {@link CsvUtils} and
+ * {@link CsvFileUtils}. Select it with {@link CsvRowCursor#setDefaultEngine(CsvEngine)}.
+ */
+public enum CsvEngine {
+    /**
+     * OpenCSV's {@code CSVReader}: every cell of every row is decoded to a {@code String}.
+     */
+    OPENCSV,
+
+    /**
+     * {@link CsvByteTokenizer} over the memory-mapped file: rows are split into byte slices and
+     * only the cells that are read get decoded. Produces the same values as OpenCSV for files
+     * with regular quoting, such as those written by {@code CSVWriter}.
+     */
+    BYTES
+}
@@ -0,0 +1,207 @@
+package org.json.utils.csvUtils;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cached metadata of a CSV file: its header and, once rows are requested, the row count and
+ * the byte offset of every {@value #STRIDE}th data row. The rows are indexed in one pass of
+ * {@link CsvByteTokenizer} without decoding any field. Entries are immutable snapshots, keyed by
+ * absolute path and reused while the file's size and modification time stay the same. The
+ * utility classes drop an entry whenever they rewrite a file and extend it when they append.
+ * Callers hold the file's lock.
+ */
+final class CsvFileIndex {
+    static final int STRIDE = 1024;
+    private static final int MAX_CACHED = 256;
+    private static final Map<Path, CsvFileIndex> cache = new ConcurrentHashMap<>();
+
+    private final Stamp stamp;
+    private final CsvHeader header;
+    private final long rowCount;
+    private final long[] offsets;
+
+    private CsvFileIndex(Stamp stamp, CsvHeader header, long rowCount, long[] offsets) {
+        this.stamp = stamp;
+        this.header = header;
+        this.rowCount = rowCount;
+        this.offsets = offsets;
+    }
+
+    /**
+     * Returns the cached metadata of a file, reading what is missing or stale.
+     * @param path File path
+     * @param withRows true to also need the row count and offsets (a full pass if not cached)
+     * @return Metadata snapshot
+     * @throws IOException if the file cannot be read or is malformed
+     */
+    static CsvFileIndex get(String path, boolean withRows) throws IOException {
+        Path file = key(path);
+        Stamp stamp = Stamp.of(file);
+        CsvFileIndex index = cache.get(file);
+        if (index != null && index.stamp.equals(stamp) && (!withRows || index.offsets != null)) {
+            return index;
+        }
+        index = withRows ? build(path, stamp) : readHeader(path, stamp);
+        if (cache.size() < MAX_CACHED || cache.containsKey(file)) {
+            cache.put(file, index);
+        }
+        return index;
+    }
+
+    /**
+     * Updates the cached entry after rows were appended, if it is still the snapshot the
+     * appender saw before writing. The sparse offsets are extended when the only new stride
+     * block starts at the first appended row; otherwise they are dropped and rebuilt on the
+     * next read that needs them.
+     * @param path File path
+     * @param seen Snapshot returned by {@link #get(String, boolean)} before the append
+     * @param rows Number of rows appended
+     * @param from Byte offset of the first appended row
+     * @throws IOException if the file's attributes cannot be read
+     */
+    static void appended(String path, CsvFileIndex seen, long rows, long from) throws IOException {
+        Path file = key(path);
+        if (cache.get(file) != seen) {
+            return;
+        }
+        long count = -1;
+        long[] offsets = null;
+        if (seen.offsets != null) {
+            long total = seen.rowCount + rows;
+            int blocks = (int) ((total + STRIDE - 1) / STRIDE);
+            if (blocks == seen.offsets.length) {
+                count = total;
+                offsets = seen.offsets;
+            } else if (blocks == seen.offsets.length + 1 && seen.rowCount % STRIDE == 0) {
+                count = total;
+                offsets = Arrays.copyOf(seen.offsets, blocks);
+                offsets[blocks - 1] = from;
+            }
+        }
+        cache.replace(file, seen, new CsvFileIndex(Stamp.of(file), seen.header, count, offsets));
+    }
+
+    /**
+     * Drops the cached entry and the loaded key indexes of a file and marks its key index
+     * sidecars stale (before it is rewritten or deleted). The sidecars are rebuilt the next
+     * time they are used.
+     * @param path File path
+     */
+    static void invalidate(String path) {
+        cache.remove(key(path));
+        CsvKeyIndex.invalidate(path);
+    }
+
+    /**
+     * @return Size and modification time of the file this snapshot describes
+     */
+    Stamp stamp() {
+        return stamp;
+    }
+
+    /**
+     * @return Header, or null if the file is empty
+     */
+    CsvHeader header() {
+        return header;
+    }
+
+    /**
+     * @return Number of data rows (requires an index read with rows)
+     */
+    long rowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Opens an unlocked cursor whose next row is the given data row.
+     * @param path File path
+     * @param row Data row index, 0-based (requires an index read with rows)
+     * @param engine Parser to use
+     * @return Cursor positioned just before the row
+     * @throws IOException if the file cannot be read
+     */
+    CsvRowCursor openAt(String path, long row, CsvEngine engine) throws IOException {
+        if (row >= rowCount) {
+            return new CsvRowCursor(path, null, engine, header, Files.size(Paths.get(path)));
+        }
+        CsvRowCursor cursor = new CsvRowCursor(path, null, engine, header, offsets[(int) (row / STRIDE)]);
+        for (long skip = row % STRIDE; skip > 0; skip--) {
+            cursor.advance();
+        }
+        return cursor;
+    }
+
+    private static CsvFileIndex readHeader(String path, Stamp stamp) throws IOException {
+        try (CsvMappedRows rows = new CsvMappedRows(path, 0)) {
+            CsvHeader header = rows.next() ? CsvHeader.of(Arrays.asList(rows.cells())) : null;
+            return new CsvFileIndex(stamp, header, header == null ? 0 : -1, header == null ? new long[0] : null);
+        }
+    }
+
+    private static CsvFileIndex build(String path, Stamp stamp) throws IOException {
+        try (CsvMappedRows rows = new CsvMappedRows(path, 0)) {
+            if (!rows.next()) {
+                return new CsvFileIndex(stamp, null, 0, new long[0]);
+            }
+            CsvHeader header = CsvHeader.of(Arrays.asList(rows.cells()));
+            long[] offsets = new long[16];
+            long count = 0;
+            while (rows.next()) {
+                if (count % STRIDE == 0) {
+                    int slot = (int) (count / STRIDE);
+                    if (slot == offsets.length) {
+                        offsets = Arrays.copyOf(offsets, slot * 2);
+                    }
+                    offsets[slot] = rows.rowOffset();
+                }
+                count++;
+            }
+            return new CsvFileIndex(stamp, header, count, Arrays.copyOf(offsets, (int) ((count + STRIDE - 1) / STRIDE)));
+        }
+    }
+
+    static Path key(String path) {
+        return Paths.get(path).toAbsolutePath().normalize();
+    }
+
+    /**
+     * Size and modification time of a file, used to detect changes made elsewhere.
+     */
+    static final class Stamp {
+        private final long size;
+        private final long modified;
+
+        Stamp(long size, long modified) {
+            this.size = size;
+            this.modified = modified;
+        }
+
+        static Stamp of(Path file) throws IOException {
+            BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            return new Stamp(attributes.size(), attributes.lastModifiedTime().toMillis());
+        }
+
+        long size() {
+            return size;
+        }
+
+        long modified() {
+            return modified;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Stamp && ((Stamp) o).size == size && ((Stamp) o).modified == modified;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(size) * 31 + Long.hashCode(modified);
+        }
+    }
+}
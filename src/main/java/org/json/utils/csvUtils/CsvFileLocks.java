@@ -0,0 +1,183 @@
+package org.json.utils.csvUtils;
+
+import java.io.IOException;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.nio.file.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.*;
+
+/**
+ * Read/write locks for CSV files, shared by {@link CsvUtils} and {@link CsvFileUtils}.
+ * Each canonical path has its own lock, so operations on different files never contend (and a
+ * cursor open on one file never blocks writes to another) while every way of naming the same
+ * file maps to the same lock. Locks are weakly referenced and dropped once no caller holds one.
+ * By default acquiring a lock waits indefinitely; {@link #setTimeout(long, TimeUnit)} makes
+ * the utility classes give up with an exception instead.
+ */
+public final class CsvFileLocks {
+    private static final ConcurrentMap<String, LockRef> locks = new ConcurrentHashMap<>();
+    private static final ReferenceQueue<ReentrantReadWriteLock> collected = new ReferenceQueue<>();
+    private static volatile long timeoutNanos;
+
+    private CsvFileLocks() {
+    }
+
+    /**
+     * Sets how long to wait for a file lock before failing.
+     * @param timeout Maximum wait; zero or negative waits indefinitely
+     * @param unit Unit of the timeout
+     */
+    public static void setTimeout(long timeout, TimeUnit unit) {
+        timeoutNanos = Math.max(0, unit.toNanos(timeout));
+    }
+
+    /**
+     * @return Current lock timeout in milliseconds (0 = wait indefinitely)
+     */
+    public static long getTimeoutMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(timeoutNanos);
+    }
+
+    /**
+     * @param path File path
+     * @return Shared read lock of the file (not yet acquired)
+     */
+    static Lock readLock(String path) {
+        ReentrantReadWriteLock lock = forPath(path);
+        return new Handle(lock, lock.readLock());
+    }
+
+    /**
+     * @param path File path
+     * @return Exclusive write lock of the file (not yet acquired)
+     */
+    static Lock writeLock(String path) {
+        ReentrantReadWriteLock lock = forPath(path);
+        return new Handle(lock, lock.writeLock());
+    }
+
+    /**
+     * Acquires the lock, waiting at most the configured timeout.
+     * @param lock Lock to acquire
+     * @return true if acquired; false on timeout or interrupt (the interrupt flag is restored)
+     */
+    static boolean acquire(Lock lock) {
+        long timeout = timeoutNanos;
+        if (timeout == 0) {
+            lock.lock();
+            return true;
+        }
+        try {
+            return lock.tryLock(timeout, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static ReentrantReadWriteLock forPath(String path) {
+        purge();
+        String key = canonical(path);
+        while (true) {
+            LockRef ref = locks.get(key);
+            ReentrantReadWriteLock lock = ref == null ? null : ref.get();
+            if (lock != null) {
+                return lock;
+            }
+            ReentrantReadWriteLock created = new ReentrantReadWriteLock();
+            LockRef fresh = new LockRef(key, created);
+            if (ref == null ? locks.putIfAbsent(key, fresh) == null : locks.replace(key, ref, fresh)) {
+                return created;
+            }
+        }
+    }
+
+    /**
+     * Removes the entries of locks that have been garbage collected.
+     */
+    private static void purge() {
+        LockRef ref;
+        while ((ref = (LockRef) collected.poll()) != null) {
+            locks.remove(ref.key, ref);
+        }
+    }
+
+    /**
+     * Resolves symbolic links and relative segments. Files that do not exist yet are resolved
+     * through their parent directory, so the key stays the same once they are created.
+     */
+    private static String canonical(String path) {
+        Path file = Paths.get(path).toAbsolutePath().normalize();
+        try {
+            return file.toRealPath().toString();
+        } catch (IOException e) {
+            Path parent = file.getParent();
+            try {
+                return parent == null ? file.toString() : parent.toRealPath().resolve(file.getFileName()).toString();
+            } catch (IOException ignored) {
+                return file.toString();
+            }
+        }
+    }
+
+    private static final class LockRef extends WeakReference<ReentrantReadWriteLock> {
+        private final String key;
+
+        LockRef(String key, ReentrantReadWriteLock lock) {
+            super(lock, collected);
+            this.key = key;
+        }
+    }
+
+    /**
+     * Read or write lock handed to callers. It references the file's lock strongly, so the lock
+     * stays in the table while anyone can still acquire or release it.
+     */
+    private static final class Handle implements Lock {
+        private final ReentrantReadWriteLock owner;
+        private final Lock lock;
+
+        Handle(ReentrantReadWriteLock owner, Lock lock) {
+            this.owner = owner;
+            this.lock = lock;
+        }
+
+        @Override
+        public void lock() {
+            lock.lock();
+        }
+
+        @Override
+        public void lockInterruptibly() throws InterruptedException {
+            lock.lockInterruptibly();
+        }
+
+        @Override
+        public boolean tryLock() {
+            return lock.tryLock();
+        }
+
+        @Override
+        public boolean tryLock(long time, TimeUnit unit) throws InterruptedException {
+            return lock.tryLock(time, unit);
+        }
+
+        @Override
+        public void unlock() {
+            lock.unlock();
+        }
+
+        @Override
+        public Condition newCondition() {
+            return lock.newCondition();
+        }
+
+        @Override
+        public String toString() {
+            return lock + " of " + owner;
+        }
+    }
+}
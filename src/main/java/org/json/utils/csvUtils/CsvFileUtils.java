@@ -12,11 +12,10 @@ import java.util.stream.Collectors;
 
 /**
  * Utility class for performing file and data operations on CSV files.
- * Thread-safe for file operations.
+ * Thread-safe for file operations; each file is locked separately through {@link CsvFileLocks},
+ * using the same locks as {@link CsvUtils}.
  */
 public class CsvFileUtils {
-    private static final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
-
     /**
      * Creates a new CSV file with the given header.
      * @param path File path
@@ -24,7 +23,8 @@ public class CsvFileUtils {
      * @throws CsvException if file exists or IO error
      */
     public static void createCsvFile(String path, List<String> header) throws CsvException {
-        lock.writeLock().lock();
+        Lock lock = writeLock(path);
+        CsvFileIndex.invalidate(path);
         try {
             Path filePath = Paths.get(path);
             if (Files.exists(filePath)) {
@@ -36,7 +36,37 @@ public class CsvFileUtils {
         } catch (IOException e) {
             throw new CsvException("Failed to create CSV file", e);
         } finally {
-            lock.writeLock().unlock();
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Opens a streaming cursor over the data rows. The file's read lock is held until the cursor is closed,
+     * so close it on the same thread, before writing to that file.
+     * @param path File path
+     * @return Cursor positioned before the first row
+     * @throws CsvException if the file cannot be opened
+     */
+    public static CsvRowCursor openCursor(String path) throws CsvException {
+        try {
+            return new CsvRowCursor(path, readLock(path));
+        } catch (IOException e) {
+            throw new CsvException("Failed to read CSV file", e);
+        }
+    }
+
+    /**
+     * Opens a streaming cursor on a specific parser, regardless of {@link CsvRowCursor#setDefaultEngine}.
+     * @param path File path
+     * @param engine Parser to use
+     * @return Cursor positioned before the first row
+     * @throws CsvException if the file cannot be opened
+     */
+    public static CsvRowCursor openCursor(String path, CsvEngine engine) throws CsvException {
+        try {
+            return new CsvRowCursor(path, readLock(path), engine);
+        } catch (IOException e) {
+            throw new CsvException("Failed to read CSV file", e);
         }
     }
 
@@ -47,25 +77,32 @@ public class CsvFileUtils {
      * @throws CsvException if file not found or malformed
      */
     public static List<Map<String, String>> readCsvFile(String path) throws CsvException {
-        lock.readLock().lock();
-        try (CSVReader reader = new CSVReader(new FileReader(path))) {
-            List<String[]> allRows = reader.readAll();
-            if (allRows.isEmpty()) return Collections.emptyList();
-            String[] header = allRows.get(0);
-            List<Map<String, String>> records = new ArrayList<>();
-            for (int i = 1; i < allRows.size(); i++) {
-                String[] row = allRows.get(i);
-                Map<String, String> record = new LinkedHashMap<>();
-                for (int j = 0; j < header.length; j++) {
-                    record.put(header[j], j < row.length ? row[j] : "");
-                }
-                records.add(record);
+        List<Map<String, String>> records = new ArrayList<>();
+        try (CsvRowCursor cursor = openCursor(path)) {
+            while (cursor.advance()) {
+                records.add(cursor.row().toMap());
             }
-            return records;
-        } catch (IOException | com.opencsv.exceptions.CsvException e) {
+        } catch (IOException | UncheckedIOException e) {
+            throw new CsvException("Failed to read CSV file", e);
+        }
+        return records;
+    }
+
+    /**
+     * Reads a CSV file into a list of records on all cores of the common pool, in file order.
+     * Same result as {@link #readCsvFile(String)}; see {@link CsvParallelReader} for options.
+     * @param path File path
+     * @return List of records
+     * @throws CsvException if file not found or malformed
+     */
+    public static List<Map<String, String>> readCsvFileParallel(String path) throws CsvException {
+        Lock lock = readLock(path);
+        try {
+            return CsvParallelReader.of(path).read().stream().map(r -> r.getFields()).collect(Collectors.toList());
+        } catch (IOException e) {
             throw new CsvException("Failed to read CSV file", e);
         } finally {
-            lock.readLock().unlock();
+            lock.unlock();
         }
     }
 
@@ -77,7 +114,8 @@ public class CsvFileUtils {
      * @throws CsvException on IO error
      */
     public static void writeCsvFile(String path, List<String> header, List<Map<String, String>> records) throws CsvException {
-        lock.writeLock().lock();
+        Lock lock = writeLock(path);
+        CsvFileIndex.invalidate(path);
         try (CSVWriter writer = new CSVWriter(new FileWriter(path))) {
             writer.writeNext(header.toArray(new String[0]));
             for (Map<String, String> record : records) {
@@ -87,7 +125,7 @@ public class CsvFileUtils {
         } catch (IOException e) {
             throw new CsvException("Failed to write CSV file", e);
         } finally {
-            lock.writeLock().unlock();
+            lock.unlock();
         }
     }
 
@@ -98,14 +136,14 @@ public class CsvFileUtils {
      * @throws CsvException on IO error
      */
     public static void updateCsvFile(String path, java.util.function.Function<List<Map<String, String>>, List<Map<String, String>>> updater) throws CsvException {
-        lock.writeLock().lock();
+        Lock lock = writeLock(path);
         try {
             List<Map<String, String>> records = readCsvFile(path);
             List<String> header = getHeader(path);
             List<Map<String, String>> updated = updater.apply(records);
             writeCsvFile(path, header, updated);
         } finally {
-            lock.writeLock().unlock();
+            lock.unlock();
         }
     }
 
@@ -115,44 +153,73 @@ public class CsvFileUtils {
      * @throws CsvException on IO error
      */
     public static void deleteCsvFile(String path) throws CsvException {
-        lock.writeLock().lock();
+        Lock lock = writeLock(path);
+        CsvFileIndex.invalidate(path);
         try {
             Files.deleteIfExists(Paths.get(path));
+            CsvKeyIndex.dropAll(path);
         } catch (IOException e) {
             throw new CsvException("Failed to delete CSV file", e);
         } finally {
-            lock.writeLock().unlock();
+            lock.unlock();
         }
     }
 
     /**
-     * Parses CSV into a list of CsvRecord objects.
+     * Parses CSV into a list of compact CsvRecord objects that share one header table.
      */
     public static List<CsvRecord> parseCsv(String path) throws CsvException {
-        List<Map<String, String>> records = readCsvFile(path);
-        return records.stream().map(CsvRecord::new).collect(Collectors.toList());
+        List<CsvRecord> records = new ArrayList<>();
+        try (CsvRowCursor cursor = openCursor(path)) {
+            while (cursor.advance()) {
+                records.add(cursor.row().toRecord());
+            }
+        } catch (IOException | UncheckedIOException e) {
+            throw new CsvException("Failed to read CSV file", e);
+        }
+        return records;
     }
 
     /**
      * Converts a list of CsvRecord objects to CSV and writes to file.
      */
     public static void persistCsv(String path, List<String> header, List<CsvRecord> records) throws CsvException {
-        List<Map<String, String>> maps = records.stream().map(CsvRecord::getFields).collect(Collectors.toList());
-        writeCsvFile(path, header, maps);
+        Lock lock = writeLock(path);
+        CsvFileIndex.invalidate(path);
+        try (CSVWriter writer = new CSVWriter(new FileWriter(path))) {
+            CsvHeader columns = CsvHeader.of(header);
+            writer.writeNext(header.toArray(new String[0]));
+            for (CsvRecord record : records) {
+                writer.writeNext(record.toRow(columns));
+            }
+        } catch (IOException e) {
+            throw new CsvException("Failed to write CSV file", e);
+        } finally {
+            lock.unlock();
+        }
     }
 
     /**
-     * Adds a new record to the CSV file.
+     * Appends a new record to the CSV file without rewriting the existing rows.
+     * Values are written in header order; columns not in the header are ignored.
      */
     public static void addRecord(String path, Map<String, String> newRecord) throws CsvException {
-        lock.writeLock().lock();
+        addRecords(path, Collections.singletonList(newRecord));
+    }
+
+    /**
+     * Appends records to the CSV file in one write, without rewriting the existing rows.
+     */
+    public static void addRecords(String path, List<? extends Map<String, String>> newRecords) throws CsvException {
+        Lock lock = writeLock(path);
         try {
-            List<Map<String, String>> records = readCsvFile(path);
-            List<String> header = getHeader(path);
-            records.add(newRecord);
-            writeCsvFile(path, header, records);
+            if (!CsvAppender.append(path, newRecords)) {
+                throw new CsvException("Empty CSV file: " + path);
+            }
+        } catch (IOException e) {
+            throw new CsvException("Failed to append to CSV file", e);
         } finally {
-            lock.writeLock().unlock();
+            lock.unlock();
         }
     }
 
@@ -160,7 +227,7 @@ public class CsvFileUtils {
      * Updates a record by key/condition.
      */
     public static void updateRecord(String path, Predicate<Map<String, String>> condition, Map<String, String> updatedFields) throws CsvException {
-        lock.writeLock().lock();
+        Lock lock = writeLock(path);
         try {
             List<Map<String, String>> records = readCsvFile(path);
             for (Map<String, String> record : records) {
@@ -171,7 +238,7 @@ public class CsvFileUtils {
             List<String> header = getHeader(path);
             writeCsvFile(path, header, records);
         } finally {
-            lock.writeLock().unlock();
+            lock.unlock();
         }
     }
 
@@ -179,14 +246,14 @@ public class CsvFileUtils {
      * Deletes a record by key/condition.
      */
     public static void deleteRecord(String path, Predicate<Map<String, String>> condition) throws CsvException {
-        lock.writeLock().lock();
+        Lock lock = writeLock(path);
         try {
             List<Map<String, String>> records = readCsvFile(path);
             List<Map<String, String>> filtered = records.stream().filter(r -> !condition.test(r)).collect(Collectors.toList());
             List<String> header = getHeader(path);
             writeCsvFile(path, header, filtered);
         } finally {
-            lock.writeLock().unlock();
+            lock.unlock();
         }
     }
 
@@ -201,27 +268,154 @@ public class CsvFileUtils {
      * Searches records by column and value.
      */
     public static List<Map<String, String>> searchByColumn(String path, String column, String value) throws CsvException {
-        return readCsvFile(path).stream()
-                .filter(r -> value.equals(r.get(column)))
-                .collect(Collectors.toList());
+        List<Map<String, String>> result = lookupIndexed(path, column, value, Integer.MAX_VALUE);
+        if (result != null) {
+            return result;
+        }
+        result = new ArrayList<>();
+        try (CsvRowCursor cursor = openCursor(path)) {
+            int index = cursor.columnIndex(column);
+            while (index >= 0 && cursor.advance()) {
+                if (cursor.row().cellEquals(index, value)) {
+                    result.add(cursor.row().toMap());
+                }
+            }
+        } catch (IOException | UncheckedIOException e) {
+            throw new CsvException("Failed to read CSV file", e);
+        }
+        return result;
     }
 
     /**
      * Gets a specific record by key.
      */
     public static Optional<Map<String, String>> getRecordByKey(String path, String keyColumn, String keyValue) throws CsvException {
-        return readCsvFile(path).stream()
-                .filter(r -> keyValue.equals(r.get(keyColumn)))
-                .findFirst();
+        List<Map<String, String>> indexed = lookupIndexed(path, keyColumn, keyValue, 1);
+        if (indexed != null) {
+            return indexed.stream().findFirst();
+        }
+        try (CsvRowCursor cursor = openCursor(path)) {
+            int index = cursor.columnIndex(keyColumn);
+            while (index >= 0 && cursor.advance()) {
+                if (cursor.row().cellEquals(index, keyValue)) {
+                    return Optional.of(cursor.row().toMap());
+                }
+            }
+        } catch (IOException | UncheckedIOException e) {
+            throw new CsvException("Failed to read CSV file", e);
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Searches records whose column value lies in a range of natural {@code String} order.
+     * Uses the column's key index if one was created, in file order either way.
+     * @param path File path
+     * @param column Column name
+     * @param from Lowest value (inclusive), or null for no lower bound
+     * @param to Highest value (exclusive), or null for no upper bound
+     * @return Matching records
+     * @throws CsvException if file not found or malformed
+     */
+    public static List<Map<String, String>> searchRange(String path, String column, String from, String to) throws CsvException {
+        Lock lock = readLock(path);
+        try {
+            CsvKeyIndex index = CsvKeyIndex.find(path, column);
+            if (index != null) {
+                return index.range(from, to).stream().map(r -> r.getFields()).collect(Collectors.toList());
+            }
+        } catch (IOException e) {
+            throw new CsvException("Failed to read CSV file", e);
+        } finally {
+            lock.unlock();
+        }
+        List<Map<String, String>> result = new ArrayList<>();
+        try (CsvRowCursor cursor = openCursor(path)) {
+            int index = cursor.columnIndex(column);
+            while (index >= 0 && cursor.advance()) {
+                String cell = cursor.row().get(index);
+                if ((from == null || cell.compareTo(from) >= 0) && (to == null || cell.compareTo(to) < 0)) {
+                    result.add(cursor.row().toMap());
+                }
+            }
+        } catch (IOException | UncheckedIOException e) {
+            throw new CsvException("Failed to read CSV file", e);
+        }
+        return result;
+    }
+
+    /**
+     * Creates a persistent key index on a column, stored next to the file, so that
+     * {@link #getRecordByKey}, {@link #searchByColumn} and {@link #searchRange} on that column
+     * read only the matching rows. Appends keep the index current; after any other change it is
+     * rebuilt on its next use.
+     * @param path File path
+     * @param column Column to index
+     * @throws CsvException if file not found, malformed, or has no such column
+     */
+    public static void createIndex(String path, String column) throws CsvException {
+        Lock lock = readLock(path);
+        try {
+            if (CsvKeyIndex.create(path, column) == null) {
+                throw new CsvException("Unknown column: " + column);
+            }
+        } catch (IOException e) {
+            throw new CsvException("Failed to index CSV file", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Deletes the key index of a column.
+     * @param path File path
+     * @param column Column name
+     * @return true if an index existed
+     * @throws CsvException if the index cannot be deleted
+     */
+    public static boolean dropIndex(String path, String column) throws CsvException {
+        Lock lock = writeLock(path);
+        try {
+            return CsvKeyIndex.drop(path, column);
+        } catch (IOException e) {
+            throw new CsvException("Failed to delete CSV index", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Looks a value up in the column's key index.
+     * @return Matching records, or null if the column has no index
+     */
+    private static List<Map<String, String>> lookupIndexed(String path, String column, String value, int limit) throws CsvException {
+        Lock lock = readLock(path);
+        try {
+            CsvKeyIndex index = CsvKeyIndex.find(path, column);
+            return index == null ? null
+                    : index.lookup(value, limit).stream().map(r -> r.getFields()).collect(Collectors.toList());
+        } catch (IOException e) {
+            throw new CsvException("Failed to read CSV file", e);
+        } finally {
+            lock.unlock();
+        }
     }
 
     /**
      * Filters records based on a condition.
      */
     public static List<Map<String, String>> filterRecords(String path, Predicate<Map<String, String>> condition) throws CsvException {
-        return readCsvFile(path).stream()
-                .filter(condition)
-                .collect(Collectors.toList());
+        List<Map<String, String>> result = new ArrayList<>();
+        try (CsvRowCursor cursor = openCursor(path)) {
+            while (cursor.advance()) {
+                if (condition.test(cursor.row().asMap())) {
+                    result.add(cursor.row().toMap());
+                }
+            }
+        } catch (IOException | UncheckedIOException e) {
+            throw new CsvException("Failed to read CSV file", e);
+        }
+        return result;
     }
 
     /**
@@ -233,10 +427,50 @@ public class CsvFileUtils {
     }
 
     /**
-     * Counts records.
+     * Counts records. Answered from the cached row index while the file is unchanged.
      */
     public static long countRecords(String path) throws CsvException {
-        return readCsvFile(path).size();
+        Lock lock = readLock(path);
+        try {
+            return CsvFileIndex.get(path, true).rowCount();
+        } catch (IOException e) {
+            throw new CsvException("Failed to read CSV file", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Reads a range of data rows, seeking to the nearest indexed row instead of reading from
+     * the start. The first call on a file builds its row index in one pass.
+     * @param path File path
+     * @param fromRow Index of the first data row, 0-based
+     * @param count Maximum number of rows
+     * @return Records of the range, fewer if the file ends first
+     * @throws CsvException if file not found or malformed
+     */
+    public static List<Map<String, String>> readRows(String path, long fromRow, int count) throws CsvException {
+        if (fromRow < 0 || count < 0) {
+            throw new IllegalArgumentException("Invalid row range: " + fromRow + ", " + count);
+        }
+        List<Map<String, String>> rows = new ArrayList<>();
+        Lock lock = readLock(path);
+        try {
+            CsvFileIndex index = CsvFileIndex.get(path, true);
+            if (index.header() == null) {
+                return rows;
+            }
+            try (CsvRowCursor cursor = index.openAt(path, fromRow, CsvRowCursor.getDefaultEngine())) {
+                while (rows.size() < count && cursor.advance()) {
+                    rows.add(cursor.row().toMap());
+                }
+            }
+        } catch (IOException | UncheckedIOException e) {
+            throw new CsvException("Failed to read CSV file", e);
+        } finally {
+            lock.unlock();
+        }
+        return rows;
     }
 
     /**
@@ -258,18 +492,39 @@ public class CsvFileUtils {
     }
 
     /**
-     * Gets the header (column names) from a CSV file.
+     * Gets the header (column names) from a CSV file, cached while the file is unchanged.
      */
     public static List<String> getHeader(String path) throws CsvException {
-        lock.readLock().lock();
-        try (CSVReader reader = new CSVReader(new FileReader(path))) {
-            String[] header = reader.readNext();
+        Lock lock = readLock(path);
+        try {
+            CsvHeader header = CsvFileIndex.get(path, false).header();
             if (header == null) throw new CsvException("Empty CSV file: " + path);
-            return Arrays.asList(header);
-        } catch (IOException | com.opencsv.exceptions.CsvException e) {
+            return new ArrayList<>(header.names());
+        } catch (IOException e) {
             throw new CsvException("Failed to read CSV header", e);
         } finally {
-            lock.readLock().unlock();
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Acquires the shared read lock of a file, honouring {@link CsvFileLocks#setTimeout}.
+     */
+    private static Lock readLock(String path) throws CsvException {
+        return acquire(CsvFileLocks.readLock(path), path);
+    }
+
+    /**
+     * Acquires the exclusive write lock of a file, honouring {@link CsvFileLocks#setTimeout}.
+     */
+    private static Lock writeLock(String path) throws CsvException {
+        return acquire(CsvFileLocks.writeLock(path), path);
+    }
+
+    private static Lock acquire(Lock lock, String path) throws CsvException {
+        if (!CsvFileLocks.acquire(lock)) {
+            throw new CsvException("Timed out waiting for lock on CSV file: " + path);
         }
+        return lock;
     }
 }
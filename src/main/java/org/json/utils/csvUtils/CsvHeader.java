@@ -0,0 +1,76 @@
+package org.json.utils.csvUtils;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Immutable column table of a CSV file: names in order plus a name-to-index lookup.
+ * Instances are interned, so every record read from files with the same header shares one table.
+ */
+final class CsvHeader {
+    private static final int MAX_CACHED = 256;
+    private static final Map<List<String>, CsvHeader> cache = new ConcurrentHashMap<>();
+
+    private final List<String> names;
+    private final Map<String, Integer> index;
+    // one entry per distinct name, in order of first appearance, holding the index of its last column
+    private final int[] keyColumns;
+
+    private CsvHeader(List<String> names) {
+        this.names = names;
+        this.index = new LinkedHashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            index.put(names.get(i), i);
+        }
+        this.keyColumns = index.values().stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Returns the shared table for the given column names.
+     * @param names Column names in file order
+     * @return Interned header
+     */
+    static CsvHeader of(List<String> names) {
+        CsvHeader header = cache.get(names);
+        if (header == null) {
+            List<String> copy = List.copyOf(names);
+            header = new CsvHeader(copy);
+            if (cache.size() < MAX_CACHED) {
+                CsvHeader existing = cache.putIfAbsent(copy, header);
+                if (existing != null) {
+                    header = existing;
+                }
+            }
+        }
+        return header;
+    }
+
+    List<String> names() {
+        return names;
+    }
+
+    int size() {
+        return names.size();
+    }
+
+    String name(int i) {
+        return names.get(i);
+    }
+
+    /**
+     * @return Index of the column (the last one for duplicate names), or -1 if absent
+     */
+    int indexOf(String column) {
+        Integer i = index.get(column);
+        return i == null ? -1 : i;
+    }
+
+    /**
+     * Columns as seen through a map keyed by name: duplicate names keep the position of their
+     * first column and the value of their last, like filling a LinkedHashMap in column order.
+     * @return Column indices, one per distinct name
+     */
+    int[] keyColumns() {
+        return keyColumns;
+    }
+}
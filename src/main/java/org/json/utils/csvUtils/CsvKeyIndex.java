@@ -0,0 +1,559 @@
+package org.json.utils.csvUtils;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * Persistent index over one column of a CSV file, mapping each cell value to the byte offsets
+ * of the rows holding it. Lookups by value use a hash map. Range scans use the values sorted in
+ * natural {@code String} order, built on first use. The index is stored in a sidecar file next
+ * to the data file ({@code <file>.<column>.idx}, with unsafe characters of the column
+ * percent-encoded), together with the data file's size and modification time.
+ * <p>
+ * The index is built with one streaming pass of {@link CsvByteTokenizer}. Appends made through
+ * the utility classes scan only the new rows: their entries are added to the end of every
+ * current sidecar, and the stored size and time are then updated in place. A rewrite through
+ * the utility classes marks every sidecar of the file stale, and deleting the file deletes them;
+ * a stale sidecar is rebuilt the next time it is used. Because size and time can survive a
+ * change made elsewhere, lookups also check the key cell of every row they read and rebuild the
+ * index when one does not match. Indexes exist only for columns they were created on. Callers
+ * hold the data file's lock.
+ */
+final class CsvKeyIndex {
+    private static final int MAGIC = 0x434B4958;
+    private static final int VERSION = 1;
+    // byte offset of the data file size and time in the sidecar, after magic and version
+    private static final int STAMP_POSITION = 8;
+    // stamp written over a sidecar's stored one to mark it stale; never matches a real file
+    private static final CsvFileIndex.Stamp STALE = new CsvFileIndex.Stamp(-1, -1);
+    private static final int READ_AHEAD = 8 * 1024;
+    private static final Map<Path, Map<String, CsvKeyIndex>> cache = new ConcurrentHashMap<>();
+
+    private final Path dataFile;
+    private final String column;
+    private CsvFileIndex.Stamp stamp;
+    // value -> offsets, with the number of offsets in element 0 and spare capacity at the end
+    private final Map<String, long[]> entries;
+    private volatile String[] sorted;
+
+    private CsvKeyIndex(Path dataFile, String column, CsvFileIndex.Stamp stamp, Map<String, long[]> entries) {
+        this.dataFile = dataFile;
+        this.column = column;
+        this.stamp = stamp;
+        this.entries = entries;
+    }
+
+    /**
+     * Builds the index of a column with one streaming pass and writes its sidecar.
+     * @param path Data file path
+     * @param column Column to index
+     * @return Fresh index, or null if the file has no such column
+     * @throws IOException if the file cannot be read or the sidecar cannot be written
+     */
+    static CsvKeyIndex create(String path, String column) throws IOException {
+        Path file = CsvFileIndex.key(path);
+        CsvKeyIndex index = build(file, column, CsvFileIndex.Stamp.of(file));
+        if (index != null) {
+            index.save();
+            cache.computeIfAbsent(file, f -> new ConcurrentHashMap<>()).put(column, index);
+        }
+        return index;
+    }
+
+    /**
+     * Returns the current index of a column if one was created, loading its sidecar or
+     * rebuilding it when stale.
+     * @param path Data file path
+     * @param column Column name
+     * @return Index, or null if the column has no index (or is no longer in the file)
+     * @throws IOException if the file cannot be read or the sidecar cannot be written
+     */
+    static CsvKeyIndex find(String path, String column) throws IOException {
+        Path file = CsvFileIndex.key(path);
+        CsvFileIndex.Stamp current = CsvFileIndex.Stamp.of(file);
+        Map<String, CsvKeyIndex> loaded = cache.get(file);
+        CsvKeyIndex index = loaded == null ? null : loaded.get(column);
+        if (index != null && index.stamp.equals(current)) {
+            return index;
+        }
+        Path sidecar = sidecarPath(file, column);
+        if (!Files.exists(sidecar)) {
+            if (loaded != null) {
+                loaded.remove(column);
+            }
+            return null;
+        }
+        index = load(file, column, sidecar, current);
+        if (index == null) {
+            index = build(file, column, current);
+            if (index == null) {
+                return null;
+            }
+            index.save();
+        }
+        cache.computeIfAbsent(file, f -> new ConcurrentHashMap<>()).put(column, index);
+        return index;
+    }
+
+    /**
+     * Deletes the index of a column.
+     * @param path Data file path
+     * @param column Column name
+     * @return true if a sidecar was deleted
+     * @throws IOException if the sidecar cannot be deleted
+     */
+    static boolean drop(String path, String column) throws IOException {
+        Path file = CsvFileIndex.key(path);
+        Map<String, CsvKeyIndex> loaded = cache.get(file);
+        if (loaded != null) {
+            loaded.remove(column);
+        }
+        return Files.deleteIfExists(sidecarPath(file, column));
+    }
+
+    /**
+     * Deletes every index of a file (after the file itself is deleted).
+     * @param path Data file path
+     * @throws IOException if a sidecar cannot be deleted
+     */
+    static void dropAll(String path) throws IOException {
+        Path file = CsvFileIndex.key(path);
+        cache.remove(file);
+        for (Path sidecar : sidecars(file, null).values()) {
+            Files.deleteIfExists(sidecar);
+        }
+    }
+
+    /**
+     * Adds appended rows to every index of the file that was current before the append.
+     * @param path Data file path
+     * @param before Size and time of the data file before the append
+     * @param from Byte offset of the first appended row
+     * @throws IOException if the new rows or the sidecars cannot be read or written
+     */
+    static void appended(String path, CsvFileIndex.Stamp before, long from) throws IOException {
+        Path file = CsvFileIndex.key(path);
+        Map<String, Path> sidecars = sidecars(file, before);
+        Map<String, CsvKeyIndex> loaded = cache.getOrDefault(file, Collections.emptyMap());
+        Set<String> columns = new LinkedHashSet<>(sidecars.keySet());
+        for (CsvKeyIndex index : loaded.values()) {
+            if (index.stamp.equals(before)) {
+                columns.add(index.column);
+            }
+        }
+        if (columns.isEmpty()) {
+            return;
+        }
+        CsvHeader header = CsvFileIndex.get(path, false).header();
+        Map<String, List<String>> values = new HashMap<>();
+        List<Long> offsets = new ArrayList<>();
+        try (CsvMappedRows rows = new CsvMappedRows(path, from)) {
+            while (rows.next()) {
+                offsets.add(rows.rowOffset());
+                for (String column : columns) {
+                    values.computeIfAbsent(column, c -> new ArrayList<>()).add(cell(rows, header.indexOf(column)));
+                }
+            }
+        }
+        CsvFileIndex.Stamp after = CsvFileIndex.Stamp.of(file);
+        for (Map.Entry<String, Path> sidecar : sidecars.entrySet()) {
+            appendDeltas(sidecar.getValue(), values.getOrDefault(sidecar.getKey(), Collections.emptyList()), offsets, after);
+        }
+        for (CsvKeyIndex index : loaded.values()) {
+            if (index.stamp.equals(before)) {
+                List<String> added = values.getOrDefault(index.column, Collections.emptyList());
+                for (int i = 0; i < added.size(); i++) {
+                    index.add(added.get(i), offsets.get(i));
+                }
+                index.stamp = after;
+            }
+        }
+    }
+
+    /**
+     * Drops the loaded indexes of a file and marks its sidecars stale, before the file is rewritten.
+     * A sidecar that cannot be marked is deleted instead; if that fails too it is left as is, and
+     * the key check of the lookups still catches it.
+     * @param path Data file path
+     */
+    static void invalidate(String path) {
+        Path file = CsvFileIndex.key(path);
+        cache.remove(file);
+        Map<String, Path> stale;
+        try {
+            stale = sidecars(file, null);
+        } catch (IOException e) {
+            return;
+        }
+        for (Path sidecar : stale.values()) {
+            try {
+                writeStamp(sidecar, STALE);
+            } catch (IOException e) {
+                try {
+                    Files.deleteIfExists(sidecar);
+                } catch (IOException ignored) {
+                    // left for the key check of the lookups
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads the rows whose cell equals the value, in file order. If a row read does not hold the
+     * value, the index is stale: it is rebuilt and the lookup repeated on the fresh index.
+     * @param value Cell value
+     * @param limit Maximum number of rows
+     * @return Matching records
+     * @throws IOException if the rows cannot be read
+     */
+    List<CsvRecord> lookup(String value, int limit) throws IOException {
+        List<CsvRecord> records = lookupRows(value, limit, true);
+        if (records == null) {
+            CsvKeyIndex fresh = rebuild();
+            records = fresh == null ? new ArrayList<>() : fresh.lookupRows(value, limit, false);
+        }
+        return records;
+    }
+
+    /**
+     * Reads the rows whose cell lies in a range of natural {@code String} order, in file order.
+     * A stale index is rebuilt as for {@link #lookup(String, int)}.
+     * @param from Lowest value (inclusive), or null for no lower bound
+     * @param to Highest value (exclusive), or null for no upper bound
+     * @return Matching records
+     * @throws IOException if the rows cannot be read
+     */
+    List<CsvRecord> range(String from, String to) throws IOException {
+        List<CsvRecord> records = rangeRows(from, to, true);
+        if (records == null) {
+            CsvKeyIndex fresh = rebuild();
+            records = fresh == null ? new ArrayList<>() : fresh.rangeRows(from, to, false);
+        }
+        return records;
+    }
+
+    private List<CsvRecord> lookupRows(String value, int limit, boolean strict) throws IOException {
+        long[] list = entries.get(value);
+        if (list == null) {
+            return new ArrayList<>();
+        }
+        return readRows(Arrays.copyOfRange(list, 1, 1 + (int) Math.min(list[0], limit)), value::equals, strict);
+    }
+
+    private List<CsvRecord> rangeRows(String from, String to, boolean strict) throws IOException {
+        String[] keys = sortedKeys();
+        int start = from == null ? 0 : insertionPoint(keys, from);
+        int end = to == null ? keys.length : insertionPoint(keys, to);
+        int count = 0;
+        for (int i = start; i < end; i++) {
+            count += (int) entries.get(keys[i])[0];
+        }
+        long[] offsets = new long[count];
+        int n = 0;
+        for (int i = start; i < end; i++) {
+            long[] list = entries.get(keys[i]);
+            System.arraycopy(list, 1, offsets, n, (int) list[0]);
+            n += (int) list[0];
+        }
+        Arrays.sort(offsets);
+        return readRows(offsets, cell -> (from == null || cell.compareTo(from) >= 0) && (to == null || cell.compareTo(to) < 0), strict);
+    }
+
+    /**
+     * Rebuilds the index from the data file, saves its sidecar and replaces the loaded copy.
+     * The stale instance is left untouched, since other readers may still be using it.
+     * @return Fresh index, or null if the column is no longer in the file
+     */
+    private CsvKeyIndex rebuild() throws IOException {
+        CsvKeyIndex fresh = build(dataFile, column, CsvFileIndex.Stamp.of(dataFile));
+        Map<String, CsvKeyIndex> loaded = cache.computeIfAbsent(dataFile, f -> new ConcurrentHashMap<>());
+        if (fresh == null) {
+            loaded.remove(column);
+            return null;
+        }
+        fresh.save();
+        loaded.put(column, fresh);
+        return fresh;
+    }
+
+    private void add(String value, long offset) {
+        long[] list = entries.get(value);
+        if (list == null) {
+            list = new long[2];
+            sorted = null;
+        } else if (list[0] + 1 == list.length) {
+            list = Arrays.copyOf(list, list.length * 2);
+        }
+        list[(int) ++list[0]] = offset;
+        entries.put(value, list);
+    }
+
+    private String[] sortedKeys() {
+        String[] keys = sorted;
+        if (keys == null) {
+            keys = entries.keySet().toArray(new String[0]);
+            Arrays.sort(keys);
+            sorted = keys;
+        }
+        return keys;
+    }
+
+    private static int insertionPoint(String[] keys, String value) {
+        int i = Arrays.binarySearch(keys, value);
+        return i >= 0 ? i : -i - 1;
+    }
+
+    /**
+     * Reads one row at each offset with the byte tokenizer, reading ahead a few kilobytes and
+     * more for longer rows. Each row's key cell is checked against the index.
+     * @param matches Test the key cell of each row must pass
+     * @param strict true to give up on the first row that fails the test or lies past the end of
+     *               the file; false to skip such rows
+     * @return Records read, or null if strict and a row failed
+     */
+    private List<CsvRecord> readRows(long[] offsets, Predicate<String> matches, boolean strict) throws IOException {
+        List<CsvRecord> records = new ArrayList<>(offsets.length);
+        if (offsets.length == 0) {
+            return records;
+        }
+        CsvHeader header = CsvFileIndex.get(dataFile.toString(), false).header();
+        int keyColumn = header == null ? -1 : header.indexOf(column);
+        if (keyColumn < 0) {
+            return strict ? null : records;
+        }
+        try (FileChannel channel = FileChannel.open(dataFile, StandardOpenOption.READ)) {
+            long size = channel.size();
+            for (long offset : offsets) {
+                CsvRecord record = offset < size ? readRow(channel, size, offset, header) : null;
+                if (record != null && matches.test(record.get(column))) {
+                    records.add(record);
+                } else if (strict) {
+                    return null;
+                }
+            }
+        }
+        return records;
+    }
+
+    /**
+     * @return Row starting at the offset, or null if none starts there before the end of the file
+     */
+    private static CsvRecord readRow(FileChannel channel, long size, long offset, CsvHeader header) throws IOException {
+        long length = Math.min(READ_AHEAD, size - offset);
+        while (true) {
+            ByteBuffer buffer = ByteBuffer.allocate((int) length);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, offset + buffer.position()) < 0) {
+                    return null;
+                }
+            }
+            buffer.flip();
+            CsvByteTokenizer tokenizer = new CsvByteTokenizer(buffer, offset + length == size, Charset.defaultCharset());
+            if (tokenizer.nextRow()) {
+                return new CsvRecord(header, CsvRowCursor.fit(tokenizer.fields(), header.size()));
+            }
+            if (!tokenizer.isIncomplete()) {
+                return null;
+            }
+            length = Math.min(Math.min(length * 2, size - offset), Integer.MAX_VALUE);
+        }
+    }
+
+    private static CsvKeyIndex build(Path file, String column, CsvFileIndex.Stamp stamp) throws IOException {
+        CsvKeyIndex index = new CsvKeyIndex(file, column, stamp, new HashMap<>());
+        try (CsvMappedRows rows = new CsvMappedRows(file.toString(), 0)) {
+            if (!rows.next()) {
+                return null;
+            }
+            int columnIndex = CsvHeader.of(Arrays.asList(rows.cells())).indexOf(column);
+            if (columnIndex < 0) {
+                return null;
+            }
+            while (rows.next()) {
+                index.add(cell(rows, columnIndex), rows.rowOffset());
+            }
+        }
+        return index;
+    }
+
+    /**
+     * @return Cell value as seen by the cursor: "" past the end of a short row
+     */
+    private static String cell(CsvMappedRows rows, int index) {
+        return index < rows.size() ? rows.get(index) : "";
+    }
+
+    private void save() throws IOException {
+        Path sidecar = sidecarPath(dataFile, column);
+        Path temp = Files.createTempFile(sidecar.toAbsolutePath().getParent(), sidecar.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeLong(stamp.size());
+                out.writeLong(stamp.modified());
+                writeString(out, column);
+                out.writeInt(entries.size());
+                for (Map.Entry<String, long[]> entry : entries.entrySet()) {
+                    writeString(out, entry.getKey());
+                    long[] list = entry.getValue();
+                    out.writeInt((int) list[0]);
+                    for (int i = 1; i <= list[0]; i++) {
+                        out.writeLong(list[i]);
+                    }
+                }
+            }
+            try {
+                Files.move(temp, sidecar, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, sidecar, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Loads a sidecar if it still matches the data file. Entries appended after the base table
+     * are replayed; when they outnumber it, the sidecar is rewritten compactly.
+     * @return Loaded index, or null if unreadable or stale
+     */
+    private static CsvKeyIndex load(Path file, String column, Path sidecar, CsvFileIndex.Stamp current) throws IOException {
+        CsvKeyIndex index;
+        long replayed = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(sidecar)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                return null;
+            }
+            CsvFileIndex.Stamp stamp = new CsvFileIndex.Stamp(in.readLong(), in.readLong());
+            if (!stamp.equals(current) || !column.equals(readString(in))) {
+                return null;
+            }
+            int count = in.readInt();
+            Map<String, long[]> entries = new HashMap<>(Math.max(16, (int) (count / 0.75f) + 1));
+            for (int i = 0; i < count; i++) {
+                String value = readString(in);
+                long[] list = new long[in.readInt() + 1];
+                list[0] = list.length - 1;
+                for (int j = 1; j < list.length; j++) {
+                    list[j] = in.readLong();
+                }
+                entries.put(value, list);
+            }
+            index = new CsvKeyIndex(file, column, stamp, entries);
+            while (true) {
+                String value;
+                try {
+                    value = readString(in);
+                } catch (EOFException e) {
+                    break;
+                }
+                index.add(value, in.readLong());
+                replayed++;
+            }
+        } catch (EOFException e) {
+            return null;
+        }
+        if (replayed > index.entries.size()) {
+            index.save();
+        }
+        return index;
+    }
+
+    /**
+     * Finds the sidecars of a data file, optionally only those whose stored size and time match
+     * the given stamp.
+     * @param stamp Required stamp, or null for every sidecar of the file
+     * @return Column name to sidecar path
+     */
+    private static Map<String, Path> sidecars(Path file, CsvFileIndex.Stamp stamp) throws IOException {
+        Map<String, Path> sidecars = new HashMap<>();
+        Path dir = file.getParent();
+        if (dir == null || !Files.isDirectory(dir)) {
+            return sidecars;
+        }
+        String prefix = file.getFileName() + ".";
+        DirectoryStream.Filter<Path> filter = p -> {
+            String name = p.getFileName().toString();
+            return name.startsWith(prefix) && name.endsWith(".idx");
+        };
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, filter)) {
+            for (Path sidecar : stream) {
+                try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(sidecar)))) {
+                    if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                        continue;
+                    }
+                    CsvFileIndex.Stamp stored = new CsvFileIndex.Stamp(in.readLong(), in.readLong());
+                    String column = readString(in);
+                    // the prefix also matches sidecars of data files named "<file>.<something>"
+                    if ((stamp == null || stamp.equals(stored)) && sidecar.equals(sidecarPath(file, column))) {
+                        sidecars.put(column, sidecar);
+                    }
+                } catch (EOFException e) {
+                    // truncated sidecar: left stale and rebuilt on use
+                }
+            }
+        }
+        return sidecars;
+    }
+
+    /**
+     * Appends (value, offset) entries to a sidecar, then records the new data file stamp.
+     * A crash in between leaves the old stamp, so the sidecar is rebuilt rather than trusted.
+     */
+    private static void appendDeltas(Path sidecar, List<String> values, List<Long> offsets, CsvFileIndex.Stamp after) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                Files.newOutputStream(sidecar, StandardOpenOption.APPEND)))) {
+            for (int i = 0; i < values.size(); i++) {
+                writeString(out, values.get(i));
+                out.writeLong(offsets.get(i));
+            }
+        }
+        writeStamp(sidecar, after);
+    }
+
+    /**
+     * Overwrites the data file size and time stored in a sidecar.
+     */
+    private static void writeStamp(Path sidecar, CsvFileIndex.Stamp stamp) throws IOException {
+        try (FileChannel channel = FileChannel.open(sidecar, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocate(16).putLong(stamp.size()).putLong(stamp.modified());
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer, STAMP_POSITION + buffer.position());
+            }
+        }
+    }
+
+    private static Path sidecarPath(Path dataFile, String column) {
+        StringBuilder name = new StringBuilder(dataFile.getFileName().toString()).append('.');
+        for (byte b : column.getBytes(StandardCharsets.UTF_8)) {
+            char c = (char) (b & 0xFF);
+            if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_' || c == '-') {
+                name.append(c);
+            } else {
+                name.append('%').append(String.format("%02X", b & 0xFF));
+            }
+        }
+        return dataFile.resolveSibling(name.append(".idx").toString());
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
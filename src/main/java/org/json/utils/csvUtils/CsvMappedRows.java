@@ -0,0 +1,95 @@
+package org.json.utils.csvUtils;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.*;
+
+/**
+ * Rows of a CSV file read by {@link CsvByteTokenizer} over the memory-mapped file, one window at
+ * a time. A row that runs past the end of a window is re-read from a new window starting at that
+ * row; a row larger than the window doubles it. Backs {@link CsvEngine#BYTES} cursors and the
+ * single pass that builds a {@link CsvFileIndex}.
+ */
+final class CsvMappedRows implements CsvRowCursor.RowSource {
+    private static final long WINDOW = 256L << 20;
+
+    private final FileChannel channel;
+    private final long size;
+    private long window = WINDOW;
+    private long base;
+    private CsvByteTokenizer tokenizer;
+
+    /**
+     * @param path File path
+     * @param offset Byte offset of a record boundary to start at
+     * @throws IOException if the file cannot be opened or mapped
+     */
+    CsvMappedRows(String path, long offset) throws IOException {
+        this.channel = FileChannel.open(Paths.get(path), StandardOpenOption.READ);
+        try {
+            this.size = channel.size();
+            map(Math.min(offset, size));
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private void map(long from) throws IOException {
+        long length = Math.min(window, size - from);
+        base = from;
+        tokenizer = new CsvByteTokenizer(channel.map(FileChannel.MapMode.READ_ONLY, from, length),
+                from + length == size, Charset.defaultCharset());
+    }
+
+    @Override
+    public boolean next() throws IOException {
+        while (!tokenizer.nextRow()) {
+            if (!tokenizer.isIncomplete()) {
+                return false;
+            }
+            long from = base + tokenizer.rowStart();
+            if (from == base) {
+                if (window >= Integer.MAX_VALUE) {
+                    throw new IOException("CSV record larger than 2 GiB at byte " + from);
+                }
+                window = Math.min(window * 2, Integer.MAX_VALUE);
+            }
+            map(from);
+        }
+        return true;
+    }
+
+    /**
+     * @return Byte offset in the file of the current row
+     */
+    long rowOffset() {
+        return base + tokenizer.rowStart();
+    }
+
+    @Override
+    public int size() {
+        return tokenizer.fieldCount();
+    }
+
+    @Override
+    public String get(int index) {
+        return tokenizer.field(index);
+    }
+
+    @Override
+    public boolean cellEquals(int index, String value) {
+        return tokenizer.fieldEquals(index, value);
+    }
+
+    @Override
+    public String[] cells() {
+        return tokenizer.fields();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
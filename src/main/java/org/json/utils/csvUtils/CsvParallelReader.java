@@ -0,0 +1,311 @@
+package org.json.utils.csvUtils;
+
+import com.opencsv.CSVReader;
+import com.opencsv.exceptions.CsvValidationException;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Reads a large CSV file on several cores. The file is cut into byte chunks that are
+ * memory-mapped and parsed by OpenCSV in parallel on a fork/join pool.
+ * <pre>
+ * List&lt;CsvRecord&gt; records = CsvParallelReader.of("feed.csv")
+ *         .chunkSize(64L &lt;&lt; 20)
+ *         .read();
+ * </pre>
+ * Chunks must start at a real record boundary, and a newline inside a quoted field is not one.
+ * A pre-scan therefore tracks quote state through every chunk in parallel. Because a chunk's
+ * starting state is not known in advance, it follows the quote automaton from every possible
+ * starting state. Those runs collapse to one or two after the first newline. The chunk results
+ * are then chained from the start of the file to pick the real state at each chunk and the
+ * first record boundary after it. The automaton ({@link CsvQuoteStates}) follows OpenCSV's
+ * default parser, so only a newline outside quotes ends a record.
+ * <p>
+ * Like {@link CsvRowCursor}, the reader does not lock the file; use
+ * {@link CsvFileUtils#readCsvFileParallel(String)} for a locked read.
+ */
+public class CsvParallelReader {
+    private static final long DEFAULT_CHUNK_SIZE = 32L << 20;
+    private static final long MAX_CHUNK_SIZE = 1L << 30;
+
+    private static final int STATES = CsvQuoteStates.STATES;
+    private static final int BOUNDARY = CsvQuoteStates.BOUNDARY;
+    private static final int[][] NEXT = CsvQuoteStates.NEXT;
+
+    private final Path file;
+    private long chunkSize = DEFAULT_CHUNK_SIZE;
+    private boolean ordered = true;
+    private ForkJoinPool pool = ForkJoinPool.commonPool();
+
+    private CsvParallelReader(String path) {
+        this.file = Paths.get(path);
+    }
+
+    /**
+     * Starts a parallel read of a CSV file.
+     * @param path File path
+     * @return New reader
+     */
+    public static CsvParallelReader of(String path) {
+        return new CsvParallelReader(path);
+    }
+
+    /**
+     * Sets the target chunk size in bytes (32 MiB by default, at most 1 GiB). Chunks grow to the
+     * next record boundary.
+     * @param bytes Chunk size
+     * @return this reader
+     */
+    public CsvParallelReader chunkSize(long bytes) {
+        if (bytes <= 0 || bytes > MAX_CHUNK_SIZE) {
+            throw new IllegalArgumentException("Chunk size must be between 1 and " + MAX_CHUNK_SIZE + ": " + bytes);
+        }
+        this.chunkSize = bytes;
+        return this;
+    }
+
+    /**
+     * Sets whether records come back in file order (the default). Unordered reads hand out each
+     * chunk's records as soon as that chunk is parsed.
+     * @param ordered true to keep file order
+     * @return this reader
+     */
+    public CsvParallelReader ordered(boolean ordered) {
+        this.ordered = ordered;
+        return this;
+    }
+
+    /**
+     * Sets the pool that scans and parses the chunks.
+     * @param pool Fork/join pool
+     * @return this reader
+     */
+    public CsvParallelReader pool(ForkJoinPool pool) {
+        this.pool = pool;
+        return this;
+    }
+
+    /**
+     * Reads every data row as a compact record sharing one header table. Short rows are padded
+     * with "", as in {@link CsvRowCursor}.
+     * @return Records, in file order unless {@link #ordered(boolean)} was turned off
+     * @throws IOException if the file cannot be read or a row is malformed
+     */
+    public List<CsvRecord> read() throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size == 0) {
+                return new ArrayList<>();
+            }
+            long[] splits = splits(channel, size);
+            List<String[]> headerRows = parseRange(channel, 0, splits[1]);
+            CsvHeader header = CsvHeader.of(headerRows.isEmpty() ? Collections.emptyList() : Arrays.asList(headerRows.get(0)));
+            int ranges = splits.length - 2;
+            CompletionService<List<CsvRecord>> completion = new ExecutorCompletionService<>(pool);
+            List<Future<List<CsvRecord>>> futures = new ArrayList<>(ranges);
+            for (int i = 1; i <= ranges; i++) {
+                long start = splits[i];
+                long end = splits[i + 1];
+                futures.add(completion.submit(() -> toRecords(parseRange(channel, start, end), header)));
+            }
+            List<CsvRecord> records = new ArrayList<>();
+            for (int i = 0; i < ranges; i++) {
+                records.addAll(await(ordered ? futures.get(i) : completion.take(), futures));
+            }
+            return records;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while reading CSV file: " + file);
+        }
+    }
+
+    /**
+     * Finds record boundaries near every chunk edge.
+     * @return 0, the end of the header record, the start of each later chunk's first record, then size
+     */
+    private long[] splits(FileChannel channel, long size) throws IOException, InterruptedException {
+        int chunks = (int) ((size + chunkSize - 1) / chunkSize);
+        List<Future<Scan>> futures = new ArrayList<>(chunks);
+        for (int i = 0; i < chunks; i++) {
+            long start = i * chunkSize;
+            long end = Math.min(size, start + chunkSize);
+            futures.add(pool.submit(() -> scan(channel, start, end)));
+        }
+        long[] splits = new long[chunks + 2];
+        int count = 0;
+        splits[count++] = 0;
+        int state = CsvQuoteStates.START;
+        for (Future<Scan> future : futures) {
+            Scan scan = await(future, futures);
+            long boundary = scan.firstBoundary[state];
+            if (boundary >= 0 && boundary < size) {
+                splits[count++] = boundary;
+            }
+            state = scan.endState[state];
+        }
+        if (count == 1) {
+            // a single record: all header, no data
+            splits[count++] = size;
+        }
+        splits[count++] = size;
+        return Arrays.copyOf(splits, count);
+    }
+
+    /**
+     * Runs the quote automaton over one chunk from every starting state at once. Runs that
+     * reach the same state are merged at each newline.
+     */
+    private static Scan scan(FileChannel channel, long start, long end) throws IOException {
+        ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+        Scan scan = new Scan();
+        int[] slotOf = new int[STATES];
+        int[] states = new int[STATES];
+        for (int s = 0; s < STATES; s++) {
+            slotOf[s] = s;
+            states[s] = s;
+        }
+        int slots = STATES;
+        int missing = STATES;
+        int limit = buffer.limit();
+        for (int i = 0; i < limit; i++) {
+            int b = buffer.get(i) & 0xFF;
+            for (int k = 0; k < slots; k++) {
+                int next = NEXT[states[k]][b];
+                if ((next & BOUNDARY) != 0) {
+                    next &= ~BOUNDARY;
+                    if (missing > 0) {
+                        for (int s = 0; s < STATES; s++) {
+                            if (slotOf[s] == k && scan.firstBoundary[s] < 0) {
+                                scan.firstBoundary[s] = start + i + 1;
+                                missing--;
+                            }
+                        }
+                    }
+                }
+                states[k] = next;
+            }
+            if (b == '\n' && slots > 1) {
+                slots = merge(states, slots, slotOf);
+            }
+        }
+        for (int s = 0; s < STATES; s++) {
+            scan.endState[s] = states[slotOf[s]];
+        }
+        return scan;
+    }
+
+    /**
+     * Folds runs that are in the same state into one slot.
+     * @return New number of slots
+     */
+    private static int merge(int[] states, int slots, int[] slotOf) {
+        for (int k = slots - 1; k > 0; k--) {
+            for (int j = 0; j < k; j++) {
+                if (states[j] == states[k]) {
+                    int last = --slots;
+                    for (int s = 0; s < STATES; s++) {
+                        if (slotOf[s] == k) {
+                            slotOf[s] = j;
+                        } else if (slotOf[s] == last) {
+                            slotOf[s] = k;
+                        }
+                    }
+                    states[k] = states[last];
+                    break;
+                }
+            }
+        }
+        return slots;
+    }
+
+    private static List<String[]> parseRange(FileChannel channel, long start, long end) throws IOException {
+        if (end - start > Integer.MAX_VALUE) {
+            throw new IOException("CSV record larger than 2 GiB at byte " + start);
+        }
+        ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+        List<String[]> rows = new ArrayList<>();
+        try (CSVReader reader = new CSVReader(new InputStreamReader(new BufferInputStream(buffer), Charset.defaultCharset()))) {
+            String[] row;
+            while ((row = reader.readNext()) != null) {
+                rows.add(row);
+            }
+        } catch (CsvValidationException e) {
+            throw new IOException("Malformed CSV in chunk starting at byte " + start, e);
+        }
+        return rows;
+    }
+
+    private static List<CsvRecord> toRecords(List<String[]> rows, CsvHeader header) {
+        List<CsvRecord> records = new ArrayList<>(rows.size());
+        for (String[] row : rows) {
+            records.add(new CsvRecord(header, CsvRowCursor.fit(row, header.size())));
+        }
+        return records;
+    }
+
+    /**
+     * Waits for a task; on failure cancels the others and rethrows the cause as an IOException.
+     */
+    private static <T> T await(Future<T> future, List<? extends Future<?>> all) throws IOException, InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            all.forEach(f -> f.cancel(true));
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IOException("Failed to read CSV chunk", cause);
+        } catch (InterruptedException e) {
+            all.forEach(f -> f.cancel(true));
+            throw e;
+        }
+    }
+
+    /**
+     * Per-chunk result of the pre-scan, indexed by the automaton state at the chunk's start.
+     */
+    private static final class Scan {
+        private final int[] endState = new int[STATES];
+        private final long[] firstBoundary = new long[STATES];
+
+        Scan() {
+            Arrays.fill(firstBoundary, -1);
+        }
+    }
+
+    /**
+     * Input stream over a mapped chunk.
+     */
+    private static final class BufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        BufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (len == 0) {
+                return 0;
+            }
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int n = Math.min(len, buffer.remaining());
+            buffer.get(b, off, n);
+            return n;
+        }
+    }
+}
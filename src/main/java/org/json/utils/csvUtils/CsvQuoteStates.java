@@ -0,0 +1,89 @@
+package org.json.utils.csvUtils;
+
+/**
+ * Byte-level state machine for CSV quoting, following OpenCSV's default parser: a doubled
+ * quote is an escaped quote, a backslash escapes a following quote, backslash or comma (and starts
+ * a field if none was open), a comma outside quotes ends a field and a line break outside quotes
+ * ends a record.
+ * <p>
+ * Base states are (inQuotes, inField) as bits 2|1. Pending states remember a backslash
+ * ({@link #ESCAPE} + base) or a quote ({@link #QUOTE} + base) whose meaning depends on the next
+ * byte. {@link #NEXT} is indexed by state and unsigned byte; the {@link #BOUNDARY} bit is set on
+ * a newline that ends a record. Multi-byte characters never contain these ASCII bytes, so the
+ * table works on raw UTF-8 (or any ASCII-compatible encoding).
+ */
+final class CsvQuoteStates {
+    static final int START = 0;
+    static final int ESCAPE = 4;
+    static final int QUOTE = 8;
+    static final int STATES = 12;
+    static final int BOUNDARY = 16;
+    static final int[][] NEXT = new int[STATES][256];
+
+    static {
+        for (int state = 0; state < STATES; state++) {
+            for (int b = 0; b < 256; b++) {
+                NEXT[state][b] = step(state, (char) b);
+            }
+        }
+    }
+
+    private CsvQuoteStates() {
+    }
+
+    /**
+     * Settles a pending state at the end of input, when no next byte can change its meaning.
+     * @param state Automaton state
+     * @return Base state
+     */
+    static int resolve(int state) {
+        if (state >= QUOTE) {
+            return (state - QUOTE) ^ 3;
+        }
+        return state >= ESCAPE ? state - ESCAPE : state;
+    }
+
+    /**
+     * @param base Base state (see {@link #resolve(int)})
+     * @return true if inside a quoted section
+     */
+    static boolean inQuotes(int base) {
+        return (base & 2) != 0;
+    }
+
+    private static int step(int state, char c) {
+        if (state >= QUOTE) {
+            int base = state - QUOTE;
+            if (c == '"') {
+                // doubled quote: a literal quote, which still flips inField like OpenCSV does
+                return base ^ 1;
+            }
+            state = base ^ 3;
+        } else if (state >= ESCAPE) {
+            int base = state - ESCAPE;
+            if (c == '"' || c == '\\' || c == ',') {
+                return base;
+            }
+            state = base;
+        }
+        boolean inQuotes = (state & 2) != 0;
+        boolean inField = (state & 1) != 0;
+        switch (c) {
+            case '\n':
+            case '\r':
+                if (inQuotes) {
+                    // the record continues on the next line, with inField reset
+                    return 2;
+                }
+                return c == '\n' ? BOUNDARY : START;
+            case '\\':
+                return ESCAPE + (state | 1);
+            case '"':
+                return inQuotes || inField ? QUOTE + state : 3;
+            case ',':
+                return inQuotes ? 3 : START;
+            default:
+                return inQuotes ? 3 : 1;
+        }
+    }
+}
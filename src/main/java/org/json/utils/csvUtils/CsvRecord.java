@@ -1,26 +1,188 @@
 package org.json.utils.csvUtils;
 
-import java.util.Map;
+import java.util.*;
 
 /**
  * Represents a generic CSV record as a map of column names to values.
+ * Records read from a file are stored compactly: a reference to the file's shared header
+ * table plus one {@code String[]} of values. {@link #getFields()} then returns a live map
+ * view over that array. Setting a column that is not in the header, or removing a column
+ * through the view, converts the record to a plain map first.
  */
 public class CsvRecord {
-    private final Map<String, String> fields;
+    private Map<String, String> fields;
+    private CsvHeader header;
+    private String[] values;
+    private Map<String, String> view;
 
     public CsvRecord(Map<String, String> fields) {
         this.fields = fields;
     }
 
+    /**
+     * Creates a compact record.
+     * @param header Shared header table
+     * @param values One value per header column (owned by the record from now on)
+     */
+    CsvRecord(CsvHeader header, String[] values) {
+        this.header = header;
+        this.values = values;
+    }
+
     public String get(String column) {
-        return fields.get(column);
+        if (fields != null) {
+            return fields.get(column);
+        }
+        int index = header.indexOf(column);
+        return index < 0 ? null : values[index];
     }
 
     public void set(String column, String value) {
+        if (fields == null) {
+            int index = header.indexOf(column);
+            if (index >= 0) {
+                values[index] = value;
+                return;
+            }
+            inflate();
+        }
         fields.put(column, value);
     }
 
     public Map<String, String> getFields() {
-        return fields;
+        if (fields != null) {
+            return fields;
+        }
+        if (view == null) {
+            view = new FieldsView();
+        }
+        return view;
+    }
+
+    /**
+     * Builds the output row for the given header, reusing the value array when the record
+     * was read with that same header.
+     * @param columns Header to write
+     * @return Values in column order, "" for missing columns
+     */
+    String[] toRow(CsvHeader columns) {
+        if (fields == null && header == columns) {
+            return values;
+        }
+        String[] row = new String[columns.size()];
+        for (int i = 0; i < row.length; i++) {
+            String value = get(columns.name(i));
+            row[i] = value == null ? "" : value;
+        }
+        return row;
+    }
+
+    /**
+     * Switches to the map representation, keeping column order.
+     */
+    private void inflate() {
+        Map<String, String> map = new LinkedHashMap<>();
+        for (int index : header.keyColumns()) {
+            map.put(header.name(index), values[index]);
+        }
+        fields = map;
+        header = null;
+        values = null;
+    }
+
+    /**
+     * Map view of the record. Backed by the value array while the record is compact and by
+     * the plain map once it has been converted. Iterating a compact record walks the header
+     * columns; removing through the iterator converts the record and keeps iterating.
+     */
+    private class FieldsView extends AbstractMap<String, String> {
+        @Override
+        public String get(Object key) {
+            return key instanceof String ? CsvRecord.this.get((String) key) : null;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            if (fields != null) {
+                return fields.containsKey(key);
+            }
+            return key instanceof String && header.indexOf((String) key) >= 0;
+        }
+
+        @Override
+        public String put(String key, String value) {
+            String previous = get(key);
+            set(key, value);
+            return previous;
+        }
+
+        @Override
+        public String remove(Object key) {
+            if (fields == null) {
+                if (!containsKey(key)) {
+                    return null;
+                }
+                inflate();
+            }
+            return fields.remove(key);
+        }
+
+        @Override
+        public int size() {
+            return fields != null ? fields.size() : header.keyColumns().length;
+        }
+
+        @Override
+        public Set<Entry<String, String>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public Iterator<Entry<String, String>> iterator() {
+                    if (fields != null) {
+                        return fields.entrySet().iterator();
+                    }
+                    CsvHeader names = header;
+                    int[] columns = names.keyColumns();
+                    return new Iterator<>() {
+                        private int next;
+                        private String last;
+
+                        @Override
+                        public boolean hasNext() {
+                            return next < columns.length;
+                        }
+
+                        @Override
+                        public Entry<String, String> next() {
+                            if (next >= columns.length) {
+                                throw new NoSuchElementException();
+                            }
+                            String name = names.name(columns[next++]);
+                            last = name;
+                            return new SimpleEntry<>(name, CsvRecord.this.get(name)) {
+                                @Override
+                                public String setValue(String value) {
+                                    set(name, value);
+                                    return super.setValue(value);
+                                }
+                            };
+                        }
+
+                        @Override
+                        public void remove() {
+                            if (last == null) {
+                                throw new IllegalStateException();
+                            }
+                            FieldsView.this.remove(last);
+                            last = null;
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return FieldsView.this.size();
+                }
+            };
+        }
     }
 }
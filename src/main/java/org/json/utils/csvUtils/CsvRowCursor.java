@@ -0,0 +1,383 @@
+package org.json.utils.csvUtils;
+
+import com.opencsv.CSVReader;
+import com.opencsv.exceptions.CsvValidationException;
+
+import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.locks.Lock;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Forward-only cursor over the data rows of a CSV file, read one row at a time.
+ * The header is read once and columns are resolved to indices, so rows are never turned into
+ * maps unless asked for. The same {@link Row} instance is reused for every row and is only
+ * valid until the cursor advances; use {@link Row#toMap()} to keep a copy.
+ * <p>
+ * Rows are parsed by OpenCSV or, with {@link CsvEngine#BYTES}, tokenized straight from the
+ * memory-mapped file so that only the cells actually read are decoded. The engine of new cursors
+ * is set with {@link #setDefaultEngine(CsvEngine)}.
+ * <p>
+ * A cursor opened with a lock holds it until closed, and must be closed by the thread that
+ * opened it. Read errors while iterating are thrown as {@link UncheckedIOException}.
+ */
+public class CsvRowCursor implements Closeable, Iterator<CsvRowCursor.Row> {
+    private static volatile CsvEngine defaultEngine = CsvEngine.OPENCSV;
+
+    private final RowSource source;
+    private final Lock lock;
+    private final CsvHeader header;
+    private final Row row = new Row();
+    private boolean fetched;
+    private boolean available;
+    private boolean closed;
+
+    /**
+     * Opens a cursor and reads the header. An empty file gives an empty header and no rows.
+     * @param path File path
+     * @param lock Lock already held by the caller, released when the cursor closes (or
+     *             if opening fails), or null
+     * @throws IOException if the file cannot be opened or the header is malformed
+     */
+    CsvRowCursor(String path, Lock lock) throws IOException {
+        this(path, lock, defaultEngine);
+    }
+
+    /**
+     * Opens a cursor on the given engine and reads the header.
+     * @param path File path
+     * @param lock Lock already held by the caller, released when the cursor closes (or
+     *             if opening fails), or null
+     * @param engine Parser to use
+     * @throws IOException if the file cannot be opened or the header is malformed
+     */
+    CsvRowCursor(String path, Lock lock, CsvEngine engine) throws IOException {
+        this(path, lock, engine, null, 0);
+    }
+
+    /**
+     * Opens a cursor at a known record boundary, such as an offset from {@link CsvFileIndex}.
+     * @param path File path
+     * @param lock Lock already held by the caller, released when the cursor closes (or
+     *             if opening fails), or null
+     * @param engine Parser to use
+     * @param header Header of the file, or null to read it from the first row (offset must be 0)
+     * @param offset Byte offset of the first row to return
+     * @throws IOException if the file cannot be opened or the header is malformed
+     */
+    CsvRowCursor(String path, Lock lock, CsvEngine engine, CsvHeader header, long offset) throws IOException {
+        this.lock = lock;
+        RowSource opened = null;
+        try {
+            opened = engine == CsvEngine.BYTES ? new CsvMappedRows(path, offset) : new ReaderSource(path, offset);
+            if (header == null) {
+                header = CsvHeader.of(opened.next() ? Arrays.asList(opened.cells()) : Collections.emptyList());
+            }
+            this.header = header;
+            this.source = opened;
+        } catch (IOException | RuntimeException e) {
+            try {
+                if (opened != null) {
+                    opened.close();
+                }
+            } finally {
+                if (lock != null) {
+                    lock.unlock();
+                }
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Sets the engine used by cursors opened from now on, including those behind the queries of
+     * {@link CsvUtils} and {@link CsvFileUtils}.
+     * @param engine Parser to use ({@link CsvEngine#OPENCSV} by default)
+     */
+    public static void setDefaultEngine(CsvEngine engine) {
+        defaultEngine = Objects.requireNonNull(engine);
+    }
+
+    /**
+     * @return Engine used by newly opened cursors
+     */
+    public static CsvEngine getDefaultEngine() {
+        return defaultEngine;
+    }
+
+    /**
+     * @return Column names from the first line
+     */
+    public List<String> getHeader() {
+        return header.names();
+    }
+
+    /**
+     * @param column Column name
+     * @return Index of the column (the last one for duplicate names), or -1 if absent
+     */
+    public int columnIndex(String column) {
+        return header.indexOf(column);
+    }
+
+    CsvHeader header() {
+        return header;
+    }
+
+    /**
+     * Moves to the next row.
+     * @return true if a row is available through {@link #row()}
+     * @throws IOException if the row cannot be read
+     */
+    public boolean advance() throws IOException {
+        boolean moved = fetched ? available : source.next();
+        fetched = false;
+        return moved;
+    }
+
+    /**
+     * @return The current row (reused across rows)
+     */
+    public Row row() {
+        return row;
+    }
+
+    /**
+     * Reads ahead to the next row, which replaces the contents of the current {@link Row}.
+     */
+    @Override
+    public boolean hasNext() {
+        if (!fetched) {
+            try {
+                available = source.next();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            fetched = true;
+        }
+        return available;
+    }
+
+    @Override
+    public Row next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        fetched = false;
+        return row;
+    }
+
+    /**
+     * Streams the remaining rows. Closing the stream closes the cursor.
+     * @return Sequential stream of the reused row view
+     */
+    public Stream<Row> stream() {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(() -> {
+                    try {
+                        close();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            source.close();
+        } finally {
+            if (lock != null) {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * @param cells Cells of a row
+     * @param size Number of header columns
+     * @return The cells cut or padded with "" to exactly size values (the same array if it fits)
+     */
+    static String[] fit(String[] cells, int size) {
+        if (cells.length == size) {
+            return cells;
+        }
+        String[] fitted = Arrays.copyOf(cells, size);
+        for (int i = cells.length; i < size; i++) {
+            fitted[i] = "";
+        }
+        return fitted;
+    }
+
+    /**
+     * View of the current row. Cells beyond the end of a short row read as "", like
+     * {@link CsvFileUtils#readCsvFile(String)}; columns not in the header read as null.
+     */
+    public class Row {
+        private final Map<String, String> mapView = new RowMap();
+
+        /**
+         * @param index Column index
+         * @return Cell value, or "" if the row is shorter
+         */
+        public String get(int index) {
+            return index < source.size() ? source.get(index) : "";
+        }
+
+        /**
+         * Compares a cell with a value without decoding it when the engine allows.
+         * @param index Column index
+         * @param value Value to compare with
+         * @return true if {@link #get(int)} would equal the value
+         */
+        public boolean cellEquals(int index, String value) {
+            return index < source.size() ? source.cellEquals(index, value) : value.isEmpty();
+        }
+
+        /**
+         * @param column Column name
+         * @return Cell value, or null if the column is not in the header
+         */
+        public String get(String column) {
+            int index = columnIndex(column);
+            return index < 0 ? null : get(index);
+        }
+
+        /**
+         * @return Number of cells actually present in this row
+         */
+        public int size() {
+            return source.size();
+        }
+
+        /**
+         * @return New map from header columns to values, detached from the cursor
+         */
+        public Map<String, String> toMap() {
+            return toRecord().getFields();
+        }
+
+        /**
+         * @return New compact record sharing the cursor's header table, detached from the cursor
+         */
+        public CsvRecord toRecord() {
+            return new CsvRecord(header, values());
+        }
+
+        /**
+         * @return Values for exactly the header columns, padded with "" (the row's own array if it fits)
+         */
+        String[] values() {
+            return fit(source.cells(), header.size());
+        }
+
+        /**
+         * @return Read-only map view of the current row, reused across rows (for predicates)
+         */
+        public Map<String, String> asMap() {
+            return mapView;
+        }
+    }
+
+    /**
+     * Rows of one engine. Accessors refer to the row found by the last {@link #next()}.
+     */
+    interface RowSource extends Closeable {
+        boolean next() throws IOException;
+
+        int size();
+
+        String get(int index);
+
+        boolean cellEquals(int index, String value);
+
+        /** @return All cells of the row */
+        String[] cells();
+    }
+
+    /**
+     * OpenCSV reader; every row arrives decoded.
+     */
+    private static final class ReaderSource implements RowSource {
+        private final CSVReader reader;
+        private String[] cells;
+
+        ReaderSource(String path, long offset) throws IOException {
+            if (offset == 0) {
+                this.reader = new CSVReader(new FileReader(path));
+            } else {
+                FileChannel channel = FileChannel.open(Paths.get(path), StandardOpenOption.READ).position(offset);
+                this.reader = new CSVReader(Channels.newReader(channel, Charset.defaultCharset()));
+            }
+        }
+
+        @Override
+        public boolean next() throws IOException {
+            try {
+                cells = reader.readNext();
+            } catch (CsvValidationException e) {
+                throw new IOException("Malformed CSV near line " + reader.getLinesRead(), e);
+            }
+            return cells != null;
+        }
+
+        @Override
+        public int size() {
+            return cells.length;
+        }
+
+        @Override
+        public String get(int index) {
+            return cells[index];
+        }
+
+        @Override
+        public boolean cellEquals(int index, String value) {
+            return value.equals(cells[index]);
+        }
+
+        @Override
+        public String[] cells() {
+            return cells;
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+
+    /**
+     * Unmodifiable map over the current row that looks up columns by index.
+     */
+    private class RowMap extends AbstractMap<String, String> {
+        @Override
+        public String get(Object key) {
+            return key instanceof String ? row.get((String) key) : null;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return key instanceof String && header.indexOf((String) key) >= 0;
+        }
+
+        @Override
+        public int size() {
+            return header.keyColumns().length;
+        }
+
+        @Override
+        public Set<Entry<String, String>> entrySet() {
+            return Collections.unmodifiableMap(row.toMap()).entrySet();
+        }
+    }
+}
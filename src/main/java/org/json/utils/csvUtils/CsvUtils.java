@@ -11,14 +11,13 @@ import java.util.stream.Collectors;
 
 /**
  * Utility class for performing all CSV file and data operations.
- * Thread-safe for file operations.
+ * Thread-safe for file operations; each file is locked separately through {@link CsvFileLocks}.
  */
 public class CsvUtils {
-    private static final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
-
     // --- File Operations ---
     public static void createCsvFile(String path, List<String> header) throws CsvException {
-        lock.writeLock().lock();
+        Lock lock = writeLock(path);
+        CsvFileIndex.invalidate(path);
         try {
             Path filePath = Paths.get(path);
             if (Files.exists(filePath)) {
@@ -30,35 +29,52 @@ public class CsvUtils {
         } catch (IOException e) {
             throw new CsvException("Failed to create CSV file", e);
         } finally {
-            lock.writeLock().unlock();
+            lock.unlock();
+        }
+    }
+
+    public static CsvRowCursor openCursor(String path) throws CsvException {
+        try {
+            return new CsvRowCursor(path, readLock(path));
+        } catch (IOException e) {
+            throw new CsvException("Failed to read CSV file", e);
+        }
+    }
+
+    public static CsvRowCursor openCursor(String path, CsvEngine engine) throws CsvException {
+        try {
+            return new CsvRowCursor(path, readLock(path), engine);
+        } catch (IOException e) {
+            throw new CsvException("Failed to read CSV file", e);
         }
     }
 
     public static List<Map<String, String>> readCsvFile(String path) throws CsvException {
-        lock.readLock().lock();
-        try (CSVReader reader = new CSVReader(new FileReader(path))) {
-            List<String[]> allRows = reader.readAll();
-            if (allRows.isEmpty()) return Collections.emptyList();
-            String[] header = allRows.get(0);
-            List<Map<String, String>> records = new ArrayList<>();
-            for (int i = 1; i < allRows.size(); i++) {
-                String[] row = allRows.get(i);
-                Map<String, String> record = new LinkedHashMap<>();
-                for (int j = 0; j < header.length; j++) {
-                    record.put(header[j], j < row.length ? row[j] : "");
-                }
-                records.add(record);
+        List<Map<String, String>> records = new ArrayList<>();
+        try (CsvRowCursor cursor = openCursor(path)) {
+            while (cursor.advance()) {
+                records.add(cursor.row().toMap());
             }
-            return records;
-        } catch (IOException | com.opencsv.exceptions.CsvException e) {
+        } catch (IOException | UncheckedIOException e) {
+            throw new CsvException("Failed to read CSV file", e);
+        }
+        return records;
+    }
+
+    public static List<Map<String, String>> readCsvFileParallel(String path) throws CsvException {
+        Lock lock = readLock(path);
+        try {
+            return CsvParallelReader.of(path).read().stream().map(r -> r.getFields()).collect(Collectors.toList());
+        } catch (IOException e) {
             throw new CsvException("Failed to read CSV file", e);
         } finally {
-            lock.readLock().unlock();
+            lock.unlock();
         }
     }
 
     public static void writeCsvFile(String path, List<String> header, List<Map<String, String>> records) throws CsvException {
-        lock.writeLock().lock();
+        Lock lock = writeLock(path);
+        CsvFileIndex.invalidate(path);
         try (CSVWriter writer = new CSVWriter(new FileWriter(path))) {
             writer.writeNext(header.toArray(new String[0]));
             for (Map<String, String> record : records) {
@@ -68,58 +84,83 @@ public class CsvUtils {
         } catch (IOException e) {
             throw new CsvException("Failed to write CSV file", e);
         } finally {
-            lock.writeLock().unlock();
+            lock.unlock();
         }
     }
 
     public static void updateCsvFile(String path, java.util.function.Function<List<Map<String, String>>, List<Map<String, String>>> updater) throws CsvException {
-        lock.writeLock().lock();
+        Lock lock = writeLock(path);
         try {
             List<Map<String, String>> records = readCsvFile(path);
             List<String> header = getHeader(path);
             List<Map<String, String>> updated = updater.apply(records);
             writeCsvFile(path, header, updated);
         } finally {
-            lock.writeLock().unlock();
+            lock.unlock();
         }
     }
 
     public static void deleteCsvFile(String path) throws CsvException {
-        lock.writeLock().lock();
+        Lock lock = writeLock(path);
+        CsvFileIndex.invalidate(path);
         try {
             Files.deleteIfExists(Paths.get(path));
+            CsvKeyIndex.dropAll(path);
         } catch (IOException e) {
             throw new CsvException("Failed to delete CSV file", e);
         } finally {
-            lock.writeLock().unlock();
+            lock.unlock();
         }
     }
 
     // --- Record Operations ---
     public static List<CsvRecord> parseCsv(String path) throws CsvException {
-        List<Map<String, String>> records = readCsvFile(path);
-        return records.stream().map(CsvRecord::new).collect(Collectors.toList());
+        List<CsvRecord> records = new ArrayList<>();
+        try (CsvRowCursor cursor = openCursor(path)) {
+            while (cursor.advance()) {
+                records.add(new CsvRecord(cursor.header(), cursor.row().values()));
+            }
+        } catch (IOException | UncheckedIOException e) {
+            throw new CsvException("Failed to read CSV file", e);
+        }
+        return records;
     }
 
     public static void persistCsv(String path, List<String> header, List<CsvRecord> records) throws CsvException {
-        List<Map<String, String>> maps = records.stream().map(CsvRecord::getFields).collect(Collectors.toList());
-        writeCsvFile(path, header, maps);
+        Lock lock = writeLock(path);
+        CsvFileIndex.invalidate(path);
+        try (CSVWriter writer = new CSVWriter(new FileWriter(path))) {
+            CsvHeader columns = CsvHeader.of(header);
+            writer.writeNext(header.toArray(new String[0]));
+            for (CsvRecord record : records) {
+                writer.writeNext(record.toRow(columns));
+            }
+        } catch (IOException e) {
+            throw new CsvException("Failed to write CSV file", e);
+        } finally {
+            lock.unlock();
+        }
     }
 
     public static void addRecord(String path, Map<String, String> newRecord) throws CsvException {
-        lock.writeLock().lock();
+        addRecords(path, Collections.singletonList(newRecord));
+    }
+
+    public static void addRecords(String path, List<? extends Map<String, String>> newRecords) throws CsvException {
+        Lock lock = writeLock(path);
         try {
-            List<Map<String, String>> records = readCsvFile(path);
-            List<String> header = getHeader(path);
-            records.add(newRecord);
-            writeCsvFile(path, header, records);
+            if (!CsvAppender.append(path, newRecords)) {
+                throw new CsvException("Empty CSV file: " + path);
+            }
+        } catch (IOException e) {
+            throw new CsvException("Failed to append to CSV file", e);
         } finally {
-            lock.writeLock().unlock();
+            lock.unlock();
         }
     }
 
     public static void updateRecord(String path, Predicate<Map<String, String>> condition, Map<String, String> updatedFields) throws CsvException {
-        lock.writeLock().lock();
+        Lock lock = writeLock(path);
         try {
             List<Map<String, String>> records = readCsvFile(path);
             for (Map<String, String> record : records) {
@@ -130,19 +171,19 @@ public class CsvUtils {
             List<String> header = getHeader(path);
             writeCsvFile(path, header, records);
         } finally {
-            lock.writeLock().unlock();
+            lock.unlock();
         }
     }
 
     public static void deleteRecord(String path, Predicate<Map<String, String>> condition) throws CsvException {
-        lock.writeLock().lock();
+        Lock lock = writeLock(path);
         try {
             List<Map<String, String>> records = readCsvFile(path);
             List<Map<String, String>> filtered = records.stream().filter(r -> !condition.test(r)).collect(Collectors.toList());
             List<String> header = getHeader(path);
             writeCsvFile(path, header, filtered);
         } finally {
-            lock.writeLock().unlock();
+            lock.unlock();
         }
     }
 
@@ -151,21 +192,118 @@ public class CsvUtils {
     }
 
     public static List<Map<String, String>> searchByColumn(String path, String column, String value) throws CsvException {
-        return readCsvFile(path).stream()
-                .filter(r -> value.equals(r.get(column)))
-                .collect(Collectors.toList());
+        List<Map<String, String>> result = lookupIndexed(path, column, value, Integer.MAX_VALUE);
+        if (result != null) {
+            return result;
+        }
+        result = new ArrayList<>();
+        try (CsvRowCursor cursor = openCursor(path)) {
+            int index = cursor.columnIndex(column);
+            while (index >= 0 && cursor.advance()) {
+                if (cursor.row().cellEquals(index, value)) {
+                    result.add(cursor.row().toMap());
+                }
+            }
+        } catch (IOException | UncheckedIOException e) {
+            throw new CsvException("Failed to read CSV file", e);
+        }
+        return result;
     }
 
     public static Optional<Map<String, String>> getRecordByKey(String path, String keyColumn, String keyValue) throws CsvException {
-        return readCsvFile(path).stream()
-                .filter(r -> keyValue.equals(r.get(keyColumn)))
-                .findFirst();
+        List<Map<String, String>> indexed = lookupIndexed(path, keyColumn, keyValue, 1);
+        if (indexed != null) {
+            return indexed.stream().findFirst();
+        }
+        try (CsvRowCursor cursor = openCursor(path)) {
+            int index = cursor.columnIndex(keyColumn);
+            while (index >= 0 && cursor.advance()) {
+                if (cursor.row().cellEquals(index, keyValue)) {
+                    return Optional.of(cursor.row().toMap());
+                }
+            }
+        } catch (IOException | UncheckedIOException e) {
+            throw new CsvException("Failed to read CSV file", e);
+        }
+        return Optional.empty();
+    }
+
+    public static List<Map<String, String>> searchRange(String path, String column, String from, String to) throws CsvException {
+        Lock lock = readLock(path);
+        try {
+            CsvKeyIndex index = CsvKeyIndex.find(path, column);
+            if (index != null) {
+                return index.range(from, to).stream().map(r -> r.getFields()).collect(Collectors.toList());
+            }
+        } catch (IOException e) {
+            throw new CsvException("Failed to read CSV file", e);
+        } finally {
+            lock.unlock();
+        }
+        List<Map<String, String>> result = new ArrayList<>();
+        try (CsvRowCursor cursor = openCursor(path)) {
+            int index = cursor.columnIndex(column);
+            while (index >= 0 && cursor.advance()) {
+                String cell = cursor.row().get(index);
+                if ((from == null || cell.compareTo(from) >= 0) && (to == null || cell.compareTo(to) < 0)) {
+                    result.add(cursor.row().toMap());
+                }
+            }
+        } catch (IOException | UncheckedIOException e) {
+            throw new CsvException("Failed to read CSV file", e);
+        }
+        return result;
+    }
+
+    public static void createIndex(String path, String column) throws CsvException {
+        Lock lock = readLock(path);
+        try {
+            if (CsvKeyIndex.create(path, column) == null) {
+                throw new CsvException("Unknown column: " + column);
+            }
+        } catch (IOException e) {
+            throw new CsvException("Failed to index CSV file", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public static boolean dropIndex(String path, String column) throws CsvException {
+        Lock lock = writeLock(path);
+        try {
+            return CsvKeyIndex.drop(path, column);
+        } catch (IOException e) {
+            throw new CsvException("Failed to delete CSV index", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static List<Map<String, String>> lookupIndexed(String path, String column, String value, int limit) throws CsvException {
+        Lock lock = readLock(path);
+        try {
+            CsvKeyIndex index = CsvKeyIndex.find(path, column);
+            return index == null ? null
+                    : index.lookup(value, limit).stream().map(r -> r.getFields()).collect(Collectors.toList());
+        } catch (IOException e) {
+            throw new CsvException("Failed to read CSV file", e);
+        } finally {
+            lock.unlock();
+        }
     }
 
     public static List<Map<String, String>> filterRecords(String path, Predicate<Map<String, String>> condition) throws CsvException {
-        return readCsvFile(path).stream()
-                .filter(condition)
-                .collect(Collectors.toList());
+        List<Map<String, String>> result = new ArrayList<>();
+        try (CsvRowCursor cursor = openCursor(path)) {
+            while (cursor.advance()) {
+                if (condition.test(cursor.row().asMap())) {
+                    result.add(cursor.row().toMap());
+                }
+            }
+        } catch (IOException | UncheckedIOException e) {
+            throw new CsvException("Failed to read CSV file", e);
+        }
+        return result;
     }
 
     public static boolean columnExists(String path, String column) throws CsvException {
@@ -174,7 +312,38 @@ public class CsvUtils {
     }
 
     public static long countRecords(String path) throws CsvException {
-        return readCsvFile(path).size();
+        Lock lock = readLock(path);
+        try {
+            return CsvFileIndex.get(path, true).rowCount();
+        } catch (IOException e) {
+            throw new CsvException("Failed to read CSV file", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public static List<Map<String, String>> readRows(String path, long fromRow, int count) throws CsvException {
+        if (fromRow < 0 || count < 0) {
+            throw new IllegalArgumentException("Invalid row range: " + fromRow + ", " + count);
+        }
+        List<Map<String, String>> rows = new ArrayList<>();
+        Lock lock = readLock(path);
+        try {
+            CsvFileIndex index = CsvFileIndex.get(path, true);
+            if (index.header() == null) {
+                return rows;
+            }
+            try (CsvRowCursor cursor = index.openAt(path, fromRow, CsvRowCursor.getDefaultEngine())) {
+                while (rows.size() < count && cursor.advance()) {
+                    rows.add(cursor.row().toMap());
+                }
+            }
+        } catch (IOException | UncheckedIOException e) {
+            throw new CsvException("Failed to read CSV file", e);
+        } finally {
+            lock.unlock();
+        }
+        return rows;
     }
 
     // --- Pretty Print ---
@@ -216,32 +385,41 @@ public class CsvUtils {
 
     // --- Header ---
     public static List<String> getHeader(String path) throws CsvException {
-        lock.readLock().lock();
-        try (CSVReader reader = new CSVReader(new FileReader(path))) {
-            String[] header = reader.readNext();
+        Lock lock = readLock(path);
+        try {
+            CsvHeader header = CsvFileIndex.get(path, false).header();
             if (header == null) throw new CsvException("Empty CSV file: " + path);
-            return Arrays.asList(header);
-        } catch (IOException | com.opencsv.exceptions.CsvException e) {
+            return new ArrayList<>(header.names());
+        } catch (IOException e) {
             throw new CsvException("Failed to read CSV header", e);
         } finally {
-            lock.readLock().unlock();
+            lock.unlock();
         }
     }
 
-    // --- CsvRecord as static inner class ---
-    public static class CsvRecord {
-        private final Map<String, String> fields;
-        public CsvRecord(Map<String, String> fields) {
-            this.fields = fields;
-        }
-        public String get(String column) {
-            return fields.get(column);
+    // --- Locking (per file, shared with CsvFileUtils) ---
+    private static Lock readLock(String path) throws CsvException {
+        return acquire(CsvFileLocks.readLock(path), path);
+    }
+
+    private static Lock writeLock(String path) throws CsvException {
+        return acquire(CsvFileLocks.writeLock(path), path);
+    }
+
+    private static Lock acquire(Lock lock, String path) throws CsvException {
+        if (!CsvFileLocks.acquire(lock)) {
+            throw new CsvException("Timed out waiting for lock on CSV file: " + path);
         }
-        public void set(String column, String value) {
-            fields.put(column, value);
+        return lock;
+    }
+
+    // --- CsvRecord as static inner class (compact storage inherited from the package record) ---
+    public static class CsvRecord extends org.json.utils.csvUtils.CsvRecord {
+        public CsvRecord(Map<String, String> fields) {
+            super(fields);
         }
-        public Map<String, String> getFields() {
-            return fields;
+        CsvRecord(CsvHeader header, String[] values) {
+            super(header, values);
         }
     }
 
@@ -0,0 +1,238 @@
+package org.json.utils.jsonUtils;
+
+import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.databind.JsonNode;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A JSON path parsed once and reusable across queries.
+ * Accepts dot-separated paths ("user.address.city", "items.0.sku", "tags.*") and
+ * JSON Pointer syntax ("/items/0/sku"). Numeric segments index into arrays (and still
+ * match object fields with that name); "*" matches every field or element.
+ * Compiled paths are immutable and thread-safe; {@link #compile(String)} caches them.
+ */
+public final class CompiledJsonPath {
+    private static final int NAME = -1;
+    private static final int WILDCARD = -2;
+    private static final int MAX_CACHED = 1024;
+    private static final Map<String, CompiledJsonPath> cache = new ConcurrentHashMap<>();
+
+    private final String expression;
+    private final String[] names;
+    private final int[] indices;
+    private final boolean hasWildcard;
+    private final boolean fieldsOnly;
+
+    private CompiledJsonPath(String expression, List<String> segments) {
+        this.expression = expression;
+        this.names = segments.toArray(new String[0]);
+        this.indices = new int[names.length];
+        boolean wildcard = false;
+        boolean fields = true;
+        for (int i = 0; i < names.length; i++) {
+            indices[i] = parseSegment(names[i]);
+            wildcard |= indices[i] == WILDCARD;
+            fields &= indices[i] == NAME;
+        }
+        this.hasWildcard = wildcard;
+        this.fieldsOnly = fields;
+    }
+
+    /**
+     * Returns the compiled form of a path, reusing a cached instance when possible.
+     * @param path Dot-separated path or JSON Pointer
+     * @return Compiled path
+     */
+    public static CompiledJsonPath compile(String path) {
+        CompiledJsonPath compiled = cache.get(path);
+        if (compiled == null) {
+            compiled = new CompiledJsonPath(path, split(path));
+            if (cache.size() < MAX_CACHED) {
+                cache.putIfAbsent(path, compiled);
+            }
+        }
+        return compiled;
+    }
+
+    /**
+     * Resolves the path against a node.
+     * For paths with wildcards the first match in document order is returned.
+     * @param node Node to start from
+     * @return The node at the path, or null if absent
+     */
+    public JsonNode evaluate(JsonNode node) {
+        if (hasWildcard) {
+            return first(node, 0);
+        }
+        JsonNode current = node;
+        for (int i = 0; i < names.length && current != null; i++) {
+            current = step(current, i);
+        }
+        return current;
+    }
+
+    /**
+     * Checks whether any node reached by the path has the given text value.
+     * @param node Node to start from
+     * @param value Value to match against {@link JsonNode#asText()}
+     * @return true if the path resolves to a node with that text
+     */
+    public boolean matches(JsonNode node, String value) {
+        if (hasWildcard) {
+            return anyMatch(node, 0, value);
+        }
+        JsonNode found = evaluate(node);
+        return found != null && value.equals(found.asText());
+    }
+
+    /**
+     * Collects every node reached by the path (more than one only with wildcards).
+     * @param node Node to start from
+     * @return Matching nodes in document order
+     */
+    public List<JsonNode> evaluateAll(JsonNode node) {
+        List<JsonNode> result = new ArrayList<>();
+        collect(node, 0, result);
+        return result;
+    }
+
+    /**
+     * Field names of the path when it consists only of plain object fields, for token-level matching.
+     * @return Segments, or null if the path uses indices or wildcards
+     */
+    String[] fieldNames() {
+        return fieldsOnly ? names : null;
+    }
+
+    /**
+     * Raw segments of the path, including numeric and "*" segments.
+     * @return Segments in order
+     */
+    String[] segments() {
+        return names;
+    }
+
+    @Override
+    public String toString() {
+        return expression;
+    }
+
+    private JsonNode step(JsonNode current, int segment) {
+        int index = indices[segment];
+        if (index >= 0 && current.isArray()) {
+            return current.get(index);
+        }
+        return current.isObject() ? current.get(names[segment]) : null;
+    }
+
+    private JsonNode first(JsonNode current, int segment) {
+        if (segment == names.length) {
+            return current;
+        }
+        if (indices[segment] != WILDCARD) {
+            JsonNode next = step(current, segment);
+            return next == null ? null : first(next, segment + 1);
+        }
+        if (current.isArray()) {
+            for (int i = 0; i < current.size(); i++) {
+                JsonNode found = first(current.get(i), segment + 1);
+                if (found != null) {
+                    return found;
+                }
+            }
+        } else if (current.isObject()) {
+            for (Iterator<JsonNode> it = current.elements(); it.hasNext(); ) {
+                JsonNode found = first(it.next(), segment + 1);
+                if (found != null) {
+                    return found;
+                }
+            }
+        }
+        return null;
+    }
+
+    private boolean anyMatch(JsonNode current, int segment, String value) {
+        if (segment == names.length) {
+            return value.equals(current.asText());
+        }
+        if (indices[segment] != WILDCARD) {
+            JsonNode next = step(current, segment);
+            return next != null && anyMatch(next, segment + 1, value);
+        }
+        if (current.isArray()) {
+            for (int i = 0; i < current.size(); i++) {
+                if (anyMatch(current.get(i), segment + 1, value)) {
+                    return true;
+                }
+            }
+        } else if (current.isObject()) {
+            for (Iterator<JsonNode> it = current.elements(); it.hasNext(); ) {
+                if (anyMatch(it.next(), segment + 1, value)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private void collect(JsonNode current, int segment, List<JsonNode> result) {
+        if (segment == names.length) {
+            result.add(current);
+            return;
+        }
+        if (indices[segment] != WILDCARD) {
+            JsonNode next = step(current, segment);
+            if (next != null) {
+                collect(next, segment + 1, result);
+            }
+            return;
+        }
+        if (current.isArray() || current.isObject()) {
+            for (Iterator<JsonNode> it = current.elements(); it.hasNext(); ) {
+                collect(it.next(), segment + 1, result);
+            }
+        }
+    }
+
+    private static List<String> split(String path) {
+        List<String> segments = new ArrayList<>();
+        if (path.startsWith("/")) {
+            for (JsonPointer pointer = JsonPointer.compile(path); !pointer.matches(); pointer = pointer.tail()) {
+                segments.add(pointer.getMatchingProperty());
+            }
+            return segments;
+        }
+        int start = 0;
+        for (int i = 0; i <= path.length(); i++) {
+            if (i == path.length() || path.charAt(i) == '.') {
+                segments.add(path.substring(start, i));
+                start = i + 1;
+            }
+        }
+        // same trailing-segment handling as String.split
+        while (segments.size() > 1 && segments.get(segments.size() - 1).isEmpty()) {
+            segments.remove(segments.size() - 1);
+        }
+        return segments;
+    }
+
+    private static int parseSegment(String segment) {
+        if ("*".equals(segment)) {
+            return WILDCARD;
+        }
+        if (segment.isEmpty() || segment.length() > 9) {
+            return NAME;
+        }
+        for (int i = 0; i < segment.length(); i++) {
+            char c = segment.charAt(i);
+            if (c < '0' || c > '9') {
+                return NAME;
+            }
+        }
+        return Integer.parseInt(segment);
+    }
+}
@@ -0,0 +1,421 @@
+package org.json.utils.jsonUtils;
+
+import com.example.jsonutils.exceptions.JsonUtilsException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Streaming aggregation over the records of a JSON array file.
+ * The file is read once at token level; only the configured paths are extracted and numeric
+ * values are accumulated in primitive arrays. Supports count, sum, min, max, average and
+ * distinct counts, optionally grouped by the text of one path.
+ * <pre>
+ * JsonAggregation.Result result = JsonAggregation.over("orders.json")
+ *         .groupBy("customer.region")
+ *         .stats("price", "latency_ms")
+ *         .distinct("customer.id")
+ *         .run();
+ * double revenue = result.getGroup("EU").getSum("price");
+ * </pre>
+ * Paths must be plain field paths (no array indices or wildcards).
+ */
+public class JsonAggregation {
+    private final String filePath;
+    private String groupByPath;
+    private final Map<String, Integer> statIndex = new LinkedHashMap<>();
+    private final Map<String, Integer> distinctIndex = new LinkedHashMap<>();
+
+    private JsonAggregation(String filePath) {
+        this.filePath = filePath;
+    }
+
+    /**
+     * Starts an aggregation over a JSON array file.
+     * @param filePath Path to the JSON file (root should be an array)
+     * @return New aggregation
+     */
+    public static JsonAggregation over(String filePath) {
+        return new JsonAggregation(filePath);
+    }
+
+    /**
+     * Groups records by the text of a path (records without it fall into the null group).
+     * @param path Path to group by
+     * @return this aggregation
+     */
+    public JsonAggregation groupBy(String path) {
+        this.groupByPath = path;
+        return this;
+    }
+
+    /**
+     * Tracks count, sum, min, max and average of the numeric values at the given paths.
+     * @param paths Paths holding numbers
+     * @return this aggregation
+     */
+    public JsonAggregation stats(String... paths) {
+        for (String path : paths) {
+            statIndex.putIfAbsent(path, statIndex.size());
+        }
+        return this;
+    }
+
+    /**
+     * Tracks the number of distinct values at the given paths.
+     * @param paths Paths to count distinct values of
+     * @return this aggregation
+     */
+    public JsonAggregation distinct(String... paths) {
+        for (String path : paths) {
+            distinctIndex.putIfAbsent(path, distinctIndex.size());
+        }
+        return this;
+    }
+
+    /**
+     * Runs the aggregation with a single streaming pass.
+     * @return Aggregation result
+     * @throws JsonUtilsException if the file cannot be read or root is not an array
+     */
+    public Result run() throws JsonUtilsException {
+        Map<String, Integer> stats = snapshot(statIndex);
+        Map<String, Integer> distinct = snapshot(distinctIndex);
+        Map<String, Group> groups = new HashMap<>();
+        try (JsonParser parser = JsonStreamSupport.openArray(filePath)) {
+            Pass pass = new Pass(stats, distinct);
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                pass.accumulate(parser, groups);
+            }
+        } catch (IOException e) {
+            throw new JsonUtilsException("Failed to aggregate JSON file: " + filePath, e);
+        } catch (IllegalArgumentException e) {
+            throw new JsonUtilsException(e.getMessage(), e);
+        }
+        return new Result(stats, distinct, groups);
+    }
+
+    /**
+     * Runs the aggregation in parallel on the common fork/join pool.
+     * @return Aggregation result
+     * @throws JsonUtilsException if the file cannot be read or root is not an array
+     */
+    public Result runParallel() throws JsonUtilsException {
+        return runParallel(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Runs the aggregation in parallel: a structural scan splits the array into byte ranges on
+     * record boundaries, each range is parsed and aggregated on its own thread, and the partial
+     * results are merged.
+     * @param pool Pool to run the partitions on
+     * @return Aggregation result
+     * @throws JsonUtilsException if the file cannot be read or root is not an array
+     */
+    public Result runParallel(ForkJoinPool pool) throws JsonUtilsException {
+        Map<String, Integer> stats = snapshot(statIndex);
+        Map<String, Integer> distinct = snapshot(distinctIndex);
+        Path path = Paths.get(filePath);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long[][] ranges = JsonArrayScanner.split(path, pool.getParallelism() * 2);
+            List<Future<Map<String, Group>>> partials = new ArrayList<>();
+            for (long[] range : ranges) {
+                partials.add(pool.submit(() -> aggregateRange(channel, range[0], range[1], stats, distinct)));
+            }
+            Map<String, Group> groups = new HashMap<>();
+            for (Future<Map<String, Group>> partial : partials) {
+                for (Map.Entry<String, Group> entry : partial.get().entrySet()) {
+                    Group existing = groups.putIfAbsent(entry.getKey(), entry.getValue());
+                    if (existing != null) {
+                        existing.merge(entry.getValue());
+                    }
+                }
+            }
+            return new Result(stats, distinct, groups);
+        } catch (IOException e) {
+            throw new JsonUtilsException("Failed to aggregate JSON file: " + filePath, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new JsonUtilsException("Interrupted while aggregating JSON file: " + filePath, e);
+        } catch (ExecutionException e) {
+            throw new JsonUtilsException("Failed to aggregate JSON file: " + filePath, e.getCause());
+        }
+    }
+
+    private Map<String, Group> aggregateRange(FileChannel channel, long start, long end,
+                                              Map<String, Integer> stats, Map<String, Integer> distinct) throws IOException {
+        Map<String, Group> groups = new HashMap<>();
+        try (JsonParser parser = JsonStreamSupport.mapper.getFactory()
+                .createParser(JsonArrayScanner.openRange(channel, start, end))) {
+            parser.nextToken();
+            Pass pass = new Pass(stats, distinct);
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                pass.accumulate(parser, groups);
+            }
+        }
+        return groups;
+    }
+
+    /**
+     * Copies the stat or distinct paths when a run starts, so paths added to the builder later do
+     * not change the shape of groups and results already handed out.
+     */
+    private static Map<String, Integer> snapshot(Map<String, Integer> index) {
+        return Collections.unmodifiableMap(new LinkedHashMap<>(index));
+    }
+
+    /**
+     * Per-thread extraction state.
+     */
+    private final class Pass {
+        private final Map<String, Integer> statIndex;
+        private final Map<String, Integer> distinctIndex;
+        private final JsonFieldExtractor extractor;
+        private final int groupSlot;
+        private final int[] statSlots;
+        private final int[] distinctSlots;
+
+        Pass(Map<String, Integer> statIndex, Map<String, Integer> distinctIndex) {
+            this.statIndex = statIndex;
+            this.distinctIndex = distinctIndex;
+            List<String> paths = new ArrayList<>();
+            List<Boolean> text = new ArrayList<>();
+            groupSlot = groupByPath == null ? -1 : addSlot(paths, text, groupByPath, true);
+            statSlots = new int[statIndex.size()];
+            for (Map.Entry<String, Integer> entry : statIndex.entrySet()) {
+                statSlots[entry.getValue()] = addSlot(paths, text, entry.getKey(), false);
+            }
+            distinctSlots = new int[distinctIndex.size()];
+            for (Map.Entry<String, Integer> entry : distinctIndex.entrySet()) {
+                distinctSlots[entry.getValue()] = addSlot(paths, text, entry.getKey(), true);
+            }
+            boolean[] wantText = new boolean[paths.size()];
+            for (int i = 0; i < wantText.length; i++) {
+                wantText[i] = text.get(i);
+            }
+            extractor = new JsonFieldExtractor(paths, wantText);
+        }
+
+        private int addSlot(List<String> paths, List<Boolean> text, String path, boolean wantText) {
+            int slot = paths.indexOf(path);
+            if (slot < 0) {
+                paths.add(path);
+                text.add(wantText);
+                return paths.size() - 1;
+            }
+            text.set(slot, text.get(slot) || wantText);
+            return slot;
+        }
+
+        void accumulate(JsonParser parser, Map<String, Group> groups) throws IOException {
+            extractor.read(parser);
+            String key = groupSlot < 0 ? null : extractor.text(groupSlot);
+            Group group = groups.get(key);
+            if (group == null) {
+                group = new Group(statIndex, distinctIndex);
+                groups.put(key, group);
+            }
+            group.count++;
+            for (int i = 0; i < statSlots.length; i++) {
+                int slot = statSlots[i];
+                if (extractor.hasNumber(slot)) {
+                    group.add(i, extractor.doubleValue(slot));
+                }
+            }
+            for (int i = 0; i < distinctSlots.length; i++) {
+                String value = extractor.text(distinctSlots[i]);
+                if (value != null) {
+                    group.distinct.get(i).add(value);
+                }
+            }
+        }
+    }
+
+    /**
+     * Accumulated values for one group.
+     */
+    public static class Group {
+        private final Map<String, Integer> statIndex;
+        private final Map<String, Integer> distinctIndex;
+        private long count;
+        private final long[] valueCounts;
+        private final double[] sums;
+        private final double[] mins;
+        private final double[] maxs;
+        private final List<Set<String>> distinct;
+
+        Group(Map<String, Integer> statIndex, Map<String, Integer> distinctIndex) {
+            this.statIndex = statIndex;
+            this.distinctIndex = distinctIndex;
+            int stats = statIndex.size();
+            this.valueCounts = new long[stats];
+            this.sums = new double[stats];
+            this.mins = new double[stats];
+            this.maxs = new double[stats];
+            Arrays.fill(mins, Double.POSITIVE_INFINITY);
+            Arrays.fill(maxs, Double.NEGATIVE_INFINITY);
+            this.distinct = new ArrayList<>(distinctIndex.size());
+            for (int i = 0; i < distinctIndex.size(); i++) {
+                distinct.add(new HashSet<>());
+            }
+        }
+
+        private void add(int stat, double value) {
+            valueCounts[stat]++;
+            sums[stat] += value;
+            if (value < mins[stat]) {
+                mins[stat] = value;
+            }
+            if (value > maxs[stat]) {
+                maxs[stat] = value;
+            }
+        }
+
+        private void merge(Group other) {
+            count += other.count;
+            for (int i = 0; i < sums.length; i++) {
+                valueCounts[i] += other.valueCounts[i];
+                sums[i] += other.sums[i];
+                mins[i] = Math.min(mins[i], other.mins[i]);
+                maxs[i] = Math.max(maxs[i], other.maxs[i]);
+            }
+            for (int i = 0; i < distinct.size(); i++) {
+                distinct.get(i).addAll(other.distinct.get(i));
+            }
+        }
+
+        /**
+         * @return Number of records in the group
+         */
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * @return Number of records with a numeric value at the path
+         */
+        public long getValueCount(String path) {
+            return valueCounts[stat(path)];
+        }
+
+        public double getSum(String path) {
+            return sums[stat(path)];
+        }
+
+        /**
+         * @return Minimum numeric value, or NaN if there was none
+         */
+        public double getMin(String path) {
+            int stat = stat(path);
+            return valueCounts[stat] == 0 ? Double.NaN : mins[stat];
+        }
+
+        /**
+         * @return Maximum numeric value, or NaN if there was none
+         */
+        public double getMax(String path) {
+            int stat = stat(path);
+            return valueCounts[stat] == 0 ? Double.NaN : maxs[stat];
+        }
+
+        /**
+         * @return Average numeric value, or NaN if there was none
+         */
+        public double getAvg(String path) {
+            int stat = stat(path);
+            return valueCounts[stat] == 0 ? Double.NaN : sums[stat] / valueCounts[stat];
+        }
+
+        public int getDistinctCount(String path) {
+            Integer index = distinctIndex.get(path);
+            if (index == null) {
+                throw new IllegalArgumentException("Path was not aggregated with distinct(): " + path);
+            }
+            return distinct.get(index).size();
+        }
+
+        private int stat(String path) {
+            Integer index = statIndex.get(path);
+            if (index == null) {
+                throw new IllegalArgumentException("Path was not aggregated with stats(): " + path);
+            }
+            return index;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder("{count=").append(count);
+            for (String path : statIndex.keySet()) {
+                sb.append(", ").append(path).append("={sum=").append(getSum(path))
+                        .append(", min=").append(getMin(path))
+                        .append(", max=").append(getMax(path))
+                        .append(", avg=").append(getAvg(path)).append('}');
+            }
+            for (String path : distinctIndex.keySet()) {
+                sb.append(", distinct(").append(path).append(")=").append(getDistinctCount(path));
+            }
+            return sb.append('}').toString();
+        }
+    }
+
+    /**
+     * Groups produced by an aggregation run.
+     */
+    public static class Result {
+        private final Map<String, Integer> statIndex;
+        private final Map<String, Integer> distinctIndex;
+        private final Map<String, Group> groups;
+
+        Result(Map<String, Integer> statIndex, Map<String, Integer> distinctIndex, Map<String, Group> groups) {
+            this.statIndex = statIndex;
+            this.distinctIndex = distinctIndex;
+            this.groups = Collections.unmodifiableMap(groups);
+        }
+
+        /**
+         * @return Groups keyed by group value (a single null key when not grouped)
+         */
+        public Map<String, Group> getGroups() {
+            return groups;
+        }
+
+        /**
+         * @return Group for the value, or null if no record had it
+         */
+        public Group getGroup(String key) {
+            return groups.get(key);
+        }
+
+        /**
+         * @return All groups merged into one
+         */
+        public Group getTotal() {
+            Group total = new Group(statIndex, distinctIndex);
+            for (Group group : groups.values()) {
+                total.merge(group);
+            }
+            return total;
+        }
+
+        @Override
+        public String toString() {
+            return groups.toString();
+        }
+    }
+}
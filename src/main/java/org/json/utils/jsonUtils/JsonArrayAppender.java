@@ -0,0 +1,144 @@
+package org.json.utils.jsonUtils;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Appends records to a JSON array file in place, without parsing or rewriting the existing content.
+ * The closing bracket is located by scanning backwards from the end of the file, the new records
+ * are spliced in front of it and the file is truncated after the new closing bracket.
+ * The spliced text is what the generator writes for an array holding just the new records,
+ * minus its opening bracket, so spacing follows the pretty setting of the write options.
+ * Appends from threads of this JVM are serialized by {@link JsonFileLocks}; the OS file lock
+ * then excludes other processes.
+ */
+final class JsonArrayAppender {
+    private static final int SCAN_BLOCK = 4096;
+    private static final byte SEPARATOR = ',';
+    private static final ObjectMapper mapper = JsonStreamSupport.mapper;
+
+    private JsonArrayAppender() {
+    }
+
+    /**
+     * Appends records to the root array of a JSON file.
+     * Records are pretty printed the same way as {@link JsonDataUtils#objectToJsonFile(String, Object)}.
+     * @param path Path to the JSON file
+     * @param records Records to append, in order
+     * @throws IOException if the file cannot be accessed or its root is not an array
+     */
+    static void append(Path path, List<?> records) throws IOException {
+        append(path, records, JsonWriteOptions.PRETTY);
+    }
+
+    /**
+     * Appends records to the root array of a JSON file with the given write options.
+     * @param path Path to the JSON file
+     * @param records Records to append, in order
+     * @param options Output format, buffering and fsync settings
+     * @throws IOException if the file cannot be accessed or its root is not an array
+     */
+    static void append(Path path, List<?> records, JsonWriteOptions options) throws IOException {
+        if (records.isEmpty()) {
+            return;
+        }
+        ByteArrayOutputStream payload = new ByteArrayOutputStream();
+        try (JsonGenerator generator = options.createGenerator(mapper, payload)) {
+            generator.writeStartArray();
+            for (Object record : records) {
+                mapper.writeValue(generator, record);
+            }
+            generator.writeEndArray();
+        }
+        byte[] tail = payload.toByteArray();
+
+        ReentrantLock threadLock = JsonFileLocks.forPath(path);
+        threadLock.lock();
+        try {
+            splice(path, tail, options);
+        } finally {
+            threadLock.unlock();
+        }
+    }
+
+    /**
+     * Writes the generated array text, minus its opening bracket, over the file's closing bracket
+     * while holding the OS file lock.
+     */
+    private static void splice(Path path, byte[] tail, JsonWriteOptions options) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            FileLock lock = channel.lock();
+            try {
+                ByteBuffer scratch = ByteBuffer.allocate(SCAN_BLOCK);
+                long closePos = lastNonWhitespace(channel, channel.size(), scratch);
+                if (closePos < 0 || byteAt(channel, closePos) != ']') {
+                    throw new IOException("Root is not a JSON array: " + path);
+                }
+                long lastPos = lastNonWhitespace(channel, closePos, scratch);
+                if (lastPos < 0) {
+                    throw new IOException("Root is not a JSON array: " + path);
+                }
+                boolean empty = byteAt(channel, lastPos) == '[';
+
+                ByteBuffer out = ByteBuffer.allocate(tail.length);
+                if (!empty) {
+                    out.put(SEPARATOR);
+                }
+                out.put(tail, 1, tail.length - 1);
+                out.flip();
+                long position = lastPos + 1;
+                while (out.hasRemaining()) {
+                    position += channel.write(out, position);
+                }
+                channel.truncate(position);
+                if (options.isFsync()) {
+                    channel.force(false);
+                }
+            } finally {
+                lock.release();
+            }
+        }
+    }
+
+    /**
+     * Finds the position of the last non-whitespace byte strictly before {@code end}.
+     * @return Byte offset, or -1 if only whitespace precedes {@code end}
+     */
+    private static long lastNonWhitespace(FileChannel channel, long end, ByteBuffer scratch) throws IOException {
+        long blockEnd = end;
+        while (blockEnd > 0) {
+            long blockStart = Math.max(0, blockEnd - scratch.capacity());
+            scratch.clear().limit((int) (blockEnd - blockStart));
+            while (scratch.hasRemaining()) {
+                if (channel.read(scratch, blockStart + scratch.position()) < 0) {
+                    throw new IOException("Unexpected end of file");
+                }
+            }
+            for (int i = scratch.limit() - 1; i >= 0; i--) {
+                byte b = scratch.get(i);
+                if (b != ' ' && b != '\t' && b != '\r' && b != '\n') {
+                    return blockStart + i;
+                }
+            }
+            blockEnd = blockStart;
+        }
+        return -1;
+    }
+
+    private static byte byteAt(FileChannel channel, long position) throws IOException {
+        ByteBuffer one = ByteBuffer.allocate(1);
+        if (channel.read(one, position) != 1) {
+            throw new IOException("Unexpected end of file");
+        }
+        return one.get(0);
+    }
+}
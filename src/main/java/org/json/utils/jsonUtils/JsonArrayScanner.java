@@ -0,0 +1,205 @@
+package org.json.utils.jsonUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Byte-level structural scanner for JSON array files.
+ * It only tracks nesting depth and string/escape state, which is enough to find where each
+ * top-level element starts and ends without tokenizing values. The scan is much cheaper than a
+ * full parse and is used to split files into independently parseable byte ranges.
+ */
+final class JsonArrayScanner {
+    private static final int BLOCK = 1 << 20;
+
+    /**
+     * Receives the byte range of every top-level element.
+     */
+    interface ElementListener {
+        /**
+         * @param start Offset of the element's first byte
+         * @param end Offset just past the element's last byte
+         */
+        void element(long start, long end);
+    }
+
+    private JsonArrayScanner() {
+    }
+
+    /**
+     * Scans the file once and reports the byte range of each top-level array element in order.
+     * Input is assumed to be well-formed JSON; malformed input gives undefined ranges.
+     * @param file JSON file whose root is an array
+     * @param listener Receiver for element ranges
+     * @return Offsets of the opening and closing brackets of the root array
+     * @throws IOException if the file cannot be read or its root is not an array
+     */
+    static long[] scan(Path file, ElementListener listener) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(BLOCK);
+            long open = -1;
+            long elementStart = -1;
+            long elementEnd = -1;
+            int depth = 0;
+            boolean inString = false;
+            boolean escaped = false;
+            long position = 0;
+            while (true) {
+                buffer.clear();
+                int read = channel.read(buffer, position);
+                if (read < 0) {
+                    break;
+                }
+                buffer.flip();
+                for (int i = 0; i < read; i++) {
+                    byte b = buffer.get(i);
+                    long offset = position + i;
+                    if (inString) {
+                        if (escaped) {
+                            escaped = false;
+                        } else if (b == '\\') {
+                            escaped = true;
+                        } else if (b == '"') {
+                            inString = false;
+                            elementEnd = offset + 1;
+                        }
+                        continue;
+                    }
+                    if (b == ' ' || b == '\t' || b == '\r' || b == '\n') {
+                        continue;
+                    }
+                    if (depth == 0) {
+                        if (b != '[' || open >= 0) {
+                            throw new IOException("Root is not a JSON array: " + file);
+                        }
+                        open = offset;
+                        depth = 1;
+                        continue;
+                    }
+                    if (depth == 1) {
+                        if (b == ',' || b == ']') {
+                            if (elementStart >= 0) {
+                                listener.element(elementStart, elementEnd);
+                                elementStart = -1;
+                            }
+                            if (b == ']') {
+                                return new long[]{open, offset};
+                            }
+                            continue;
+                        }
+                        if (elementStart < 0) {
+                            elementStart = offset;
+                        }
+                    }
+                    if (b == '"') {
+                        inString = true;
+                    } else if (b == '{' || b == '[') {
+                        depth++;
+                    } else if (b == '}' || b == ']') {
+                        depth--;
+                    }
+                    elementEnd = offset + 1;
+                }
+                position += read;
+            }
+            throw new IOException("Root is not a JSON array: " + file);
+        }
+    }
+
+    /**
+     * Splits the elements of a JSON array file into at most {@code parts} contiguous byte ranges
+     * of roughly equal size, each starting and ending on element boundaries.
+     * @param file JSON file whose root is an array
+     * @param parts Desired number of ranges
+     * @return Ranges as {start, end} pairs; empty if the array is empty
+     * @throws IOException if the file cannot be read or its root is not an array
+     */
+    static long[][] split(Path file, int parts) throws IOException {
+        long size = file.toFile().length();
+        long target = Math.max(1, size / Math.max(1, parts));
+        List<long[]> ranges = new ArrayList<>();
+        long[] current = {-1, -1};
+        scan(file, (start, end) -> {
+            if (current[0] < 0) {
+                current[0] = start;
+            }
+            current[1] = end;
+            if (current[1] - current[0] >= target) {
+                ranges.add(new long[]{current[0], current[1]});
+                current[0] = -1;
+            }
+        });
+        if (current[0] >= 0) {
+            ranges.add(new long[]{current[0], current[1]});
+        }
+        return ranges.toArray(new long[0][]);
+    }
+
+    /**
+     * Opens a stream over a byte range of comma-separated elements, wrapped in brackets so it
+     * parses as a JSON array on its own.
+     * @param channel Open channel of the file (positional reads only; may be shared)
+     * @param start Offset of the first element
+     * @param end Offset just past the last element
+     * @return Input stream yielding "[" + range + "]"
+     */
+    static InputStream openRange(FileChannel channel, long start, long end) {
+        return new RangeInputStream(channel, start, end);
+    }
+
+    /**
+     * Positional reader of a file region, prefixed with '[' and suffixed with ']'.
+     */
+    private static final class RangeInputStream extends InputStream {
+        private final FileChannel channel;
+        private final long end;
+        private long position;
+        private boolean opened;
+        private boolean closed;
+
+        RangeInputStream(FileChannel channel, long start, long end) {
+            this.channel = channel;
+            this.position = start;
+            this.end = end;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] one = new byte[1];
+            return read(one, 0, 1) < 0 ? -1 : one[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            if (!opened) {
+                opened = true;
+                b[off] = '[';
+                return 1;
+            }
+            if (position >= end) {
+                if (closed) {
+                    return -1;
+                }
+                closed = true;
+                b[off] = ']';
+                return 1;
+            }
+            int toRead = (int) Math.min(len, end - position);
+            int read = channel.read(ByteBuffer.wrap(b, off, toRead), position);
+            if (read < 0) {
+                throw new IOException("Unexpected end of file");
+            }
+            position += read;
+            return read;
+        }
+    }
+}
@@ -0,0 +1,457 @@
+package org.json.utils.jsonUtils;
+
+import com.example.jsonutils.exceptions.JsonUtilsException;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Splits a large JSON array file into shard files and merges array files back into one.
+ * Records are copied token by token with {@link JsonGenerator#copyCurrentStructure(JsonParser)},
+ * so no record is built as a tree. Shards are named {@code <name>-00000.json},
+ * {@code <name>-00001.json}, ... after the input file and written in parallel on a fork/join pool.
+ * <pre>
+ * List&lt;Path&gt; shards = JsonArraySplitter.of("export.json")
+ *         .outputDir("shards")
+ *         .byKeyHash("customer.id", 16);
+ * </pre>
+ * Count and size splits keep the input order across shards. A hash split keeps the input order
+ * within each shard and sends all records with the same key text to the same shard.
+ */
+public class JsonArraySplitter {
+    private static final int QUEUE_CAPACITY = 1024;
+    private static final ObjectMapper mapper = JsonStreamSupport.mapper;
+
+    private final String filePath;
+    private Path outputDir;
+    private JsonWriteOptions options = JsonWriteOptions.DEFAULT;
+    private ForkJoinPool pool = ForkJoinPool.commonPool();
+
+    private JsonArraySplitter(String filePath) {
+        this.filePath = filePath;
+    }
+
+    /**
+     * Starts a split of a JSON array file.
+     * @param filePath Path to the JSON file (root should be an array)
+     * @return New splitter
+     */
+    public static JsonArraySplitter of(String filePath) {
+        return new JsonArraySplitter(filePath);
+    }
+
+    /**
+     * Sets the directory for shard files (defaults to the input file's directory; created if missing).
+     * @param dir Output directory
+     * @return this splitter
+     */
+    public JsonArraySplitter outputDir(String dir) {
+        this.outputDir = Paths.get(dir);
+        return this;
+    }
+
+    /**
+     * Sets the write options of the shard files (compact by default).
+     * @param options Output format, buffering and fsync settings
+     * @return this splitter
+     */
+    public JsonArraySplitter options(JsonWriteOptions options) {
+        this.options = options;
+        return this;
+    }
+
+    /**
+     * Sets the pool that runs the shard writers.
+     * @param pool Fork/join pool
+     * @return this splitter
+     */
+    public JsonArraySplitter pool(ForkJoinPool pool) {
+        this.pool = pool;
+        return this;
+    }
+
+    /**
+     * Splits into shards of at most the given number of records.
+     * @param recordsPerShard Maximum records per shard
+     * @return Shard files in order
+     * @throws JsonUtilsException if reading or writing fails
+     */
+    public List<Path> byCount(int recordsPerShard) throws JsonUtilsException {
+        if (recordsPerShard <= 0) {
+            throw new IllegalArgumentException("Records per shard must be positive: " + recordsPerShard);
+        }
+        int[] count = {0};
+        return splitRanges((start, end, currentStart) -> ++count[0] % recordsPerShard == 0);
+    }
+
+    /**
+     * Splits into shards whose records take at most the given number of input bytes.
+     * A single record larger than the limit gets a shard of its own.
+     * @param maxBytesPerShard Maximum input bytes of records per shard
+     * @return Shard files in order
+     * @throws JsonUtilsException if reading or writing fails
+     */
+    public List<Path> bySize(long maxBytesPerShard) throws JsonUtilsException {
+        if (maxBytesPerShard <= 0) {
+            throw new IllegalArgumentException("Shard size must be positive: " + maxBytesPerShard);
+        }
+        return splitRanges(new RangeRule() {
+            @Override
+            public boolean endsShard(long start, long end, long currentStart) {
+                return false;
+            }
+
+            @Override
+            public boolean startsShard(long start, long end, long currentStart) {
+                return currentStart >= 0 && end - currentStart > maxBytesPerShard;
+            }
+        });
+    }
+
+    /**
+     * Splits into a fixed number of shards by the hash of each record's key text.
+     * Records without the key go to the shard of the empty string.
+     * @param keyPath Path of the key in each record
+     * @param shards Number of shards
+     * @return Shard files, indexed by shard number
+     * @throws JsonUtilsException if reading or writing fails
+     */
+    public List<Path> byKeyHash(String keyPath, int shards) throws JsonUtilsException {
+        if (shards <= 0) {
+            throw new IllegalArgumentException("Shard count must be positive: " + shards);
+        }
+        CompiledJsonPath path = CompiledJsonPath.compile(keyPath);
+        String[] fields = path.fieldNames();
+        List<Path> outputs = shardPaths(shards);
+        int writers = Math.min(shards, Math.max(1, pool.getParallelism()));
+        List<BlockingQueue<Routed>> queues = new ArrayList<>();
+        List<Future<Void>> futures = new ArrayList<>();
+        for (int w = 0; w < writers; w++) {
+            BlockingQueue<Routed> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+            queues.add(queue);
+            int writer = w;
+            futures.add(pool.submit(() -> drain(queue, outputs, writer, writers)));
+        }
+        JsonUtilsException failure = null;
+        try (JsonParser parser = JsonStreamSupport.openArray(filePath)) {
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                TokenBuffer buffer = new TokenBuffer(parser);
+                buffer.copyCurrentStructure(parser);
+                int shard = Math.floorMod(keyText(buffer, path, fields).hashCode(), shards);
+                queues.get(shard % writers).put(new Routed(shard, buffer));
+            }
+        } catch (IOException e) {
+            failure = new JsonUtilsException("Failed to split JSON file: " + filePath, e);
+        } catch (JsonUtilsException e) {
+            failure = e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failure = new JsonUtilsException("Interrupted while splitting JSON file: " + filePath, e);
+        } finally {
+            for (BlockingQueue<Routed> queue : queues) {
+                putQuietly(queue, Routed.END);
+            }
+        }
+        failure = await(futures, failure);
+        if (failure != null) {
+            outputs.forEach(JsonStreamSupport::deleteQuietly);
+            throw failure;
+        }
+        return outputs;
+    }
+
+    /**
+     * Merges JSON array files into one array, in the given order. The output may be one of
+     * the inputs; it is written to a temp file and moved into place.
+     * @param inputPaths Paths of the JSON array files
+     * @param outputPath Path of the merged file
+     * @param options Output format, buffering and fsync settings
+     * @throws JsonUtilsException if an input is not an array or IO error occurs
+     */
+    public static void merge(Collection<String> inputPaths, String outputPath, JsonWriteOptions options) throws JsonUtilsException {
+        Path target = Paths.get(outputPath);
+        Path temp = null;
+        try {
+            temp = JsonStreamSupport.createSiblingTemp(target);
+            try (FileOutputStream file = new FileOutputStream(temp.toFile());
+                 JsonGenerator generator = options.createGenerator(mapper, file)) {
+                generator.writeStartArray();
+                for (String input : inputPaths) {
+                    try (JsonParser parser = JsonStreamSupport.openArray(input)) {
+                        while (parser.nextToken() != JsonToken.END_ARRAY) {
+                            generator.copyCurrentStructure(parser);
+                        }
+                    }
+                }
+                generator.writeEndArray();
+                generator.flush();
+                options.sync(file);
+            }
+            JsonStreamSupport.replaceWith(temp, target);
+        } catch (IOException e) {
+            JsonStreamSupport.deleteQuietly(temp);
+            throw new JsonUtilsException("Failed to merge JSON files into: " + outputPath, e);
+        } catch (JsonUtilsException e) {
+            JsonStreamSupport.deleteQuietly(temp);
+            throw e;
+        }
+    }
+
+    /**
+     * Merges JSON array files into one compact array, in the given order.
+     * @param inputPaths Paths of the JSON array files
+     * @param outputPath Path of the merged file
+     * @throws JsonUtilsException if an input is not an array or IO error occurs
+     */
+    public static void merge(Collection<String> inputPaths, String outputPath) throws JsonUtilsException {
+        merge(inputPaths, outputPath, JsonWriteOptions.DEFAULT);
+    }
+
+    /**
+     * Decides shard boundaries while the element ranges are scanned.
+     */
+    private interface RangeRule {
+        /** @return true if the shard ends after this element */
+        boolean endsShard(long start, long end, long currentStart);
+
+        /** @return true if this element must start a new shard */
+        default boolean startsShard(long start, long end, long currentStart) {
+            return false;
+        }
+    }
+
+    /**
+     * Groups element byte ranges into contiguous shards and copies each range on the pool.
+     */
+    private List<Path> splitRanges(RangeRule rule) throws JsonUtilsException {
+        Path source = Paths.get(filePath);
+        List<long[]> ranges = new ArrayList<>();
+        long[] current = {-1, -1};
+        try {
+            JsonArrayScanner.scan(source, (start, end) -> {
+                if (rule.startsShard(start, end, current[0])) {
+                    ranges.add(new long[]{current[0], current[1]});
+                    current[0] = -1;
+                }
+                if (current[0] < 0) {
+                    current[0] = start;
+                }
+                current[1] = end;
+                if (rule.endsShard(start, end, current[0])) {
+                    ranges.add(new long[]{current[0], current[1]});
+                    current[0] = -1;
+                }
+            });
+        } catch (IOException e) {
+            throw new JsonUtilsException("Failed to split JSON file: " + filePath, e);
+        }
+        if (current[0] >= 0) {
+            ranges.add(new long[]{current[0], current[1]});
+        }
+        List<Path> outputs = shardPaths(ranges.size());
+        List<Future<Void>> futures = new ArrayList<>();
+        JsonUtilsException failure;
+        try (FileChannel channel = FileChannel.open(source, StandardOpenOption.READ)) {
+            for (int i = 0; i < ranges.size(); i++) {
+                long[] range = ranges.get(i);
+                Path output = outputs.get(i);
+                futures.add(pool.submit(() -> copyRange(channel, range[0], range[1], output)));
+            }
+            failure = await(futures, null);
+        } catch (IOException e) {
+            failure = await(futures, new JsonUtilsException("Failed to split JSON file: " + filePath, e));
+        }
+        if (failure != null) {
+            outputs.forEach(JsonStreamSupport::deleteQuietly);
+            throw failure;
+        }
+        return outputs;
+    }
+
+    private Void copyRange(FileChannel channel, long start, long end, Path output) throws IOException {
+        try (InputStream in = JsonArrayScanner.openRange(channel, start, end);
+             JsonParser parser = mapper.getFactory().createParser(in);
+             FileOutputStream file = new FileOutputStream(output.toFile());
+             JsonGenerator generator = options.createGenerator(mapper, file)) {
+            parser.nextToken();
+            generator.writeStartArray();
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                generator.copyCurrentStructure(parser);
+            }
+            generator.writeEndArray();
+            generator.flush();
+            options.sync(file);
+        }
+        return null;
+    }
+
+    /**
+     * Writes the records routed to one writer into the shards it owns (shard % writers == writer).
+     * After a write failure it keeps taking records until the end marker so the reader never blocks.
+     */
+    private Void drain(BlockingQueue<Routed> queue, List<Path> outputs, int writer, int writers) throws Exception {
+        List<FileOutputStream> files = new ArrayList<>();
+        JsonGenerator[] generators = new JsonGenerator[outputs.size()];
+        Exception failure = null;
+        try {
+            for (int shard = writer; shard < outputs.size(); shard += writers) {
+                FileOutputStream file = new FileOutputStream(outputs.get(shard).toFile());
+                files.add(file);
+                generators[shard] = options.createGenerator(mapper, file);
+                generators[shard].writeStartArray();
+            }
+        } catch (IOException e) {
+            failure = e;
+        }
+        while (true) {
+            Routed routed = queue.take();
+            if (routed == Routed.END) {
+                break;
+            }
+            if (failure == null) {
+                try (JsonParser recordParser = routed.buffer.asParser()) {
+                    recordParser.nextToken();
+                    generators[routed.shard].copyCurrentStructure(recordParser);
+                } catch (IOException e) {
+                    failure = e;
+                }
+            }
+        }
+        for (int shard = writer; shard < outputs.size(); shard += writers) {
+            JsonGenerator generator = generators[shard];
+            if (generator == null) {
+                continue;
+            }
+            try {
+                if (failure == null) {
+                    generator.writeEndArray();
+                    generator.flush();
+                    options.sync(files.get(shard / writers));
+                }
+                generator.close();
+            } catch (IOException e) {
+                if (failure == null) {
+                    failure = e;
+                }
+            }
+        }
+        for (FileOutputStream file : files) {
+            try {
+                file.close();
+            } catch (IOException e) {
+                if (failure == null) {
+                    failure = e;
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        return null;
+    }
+
+    private static String keyText(TokenBuffer buffer, CompiledJsonPath path, String[] fields) throws IOException {
+        if (fields != null) {
+            try (JsonParser recordParser = buffer.asParser()) {
+                if (recordParser.nextToken() != JsonToken.START_OBJECT) {
+                    return "";
+                }
+                String text = JsonStreamSupport.textAtPath(recordParser, fields);
+                return text == null ? "" : text;
+            }
+        }
+        try (JsonParser recordParser = buffer.asParser(mapper)) {
+            JsonNode key = path.evaluate(mapper.readTree(recordParser));
+            return key == null ? "" : key.asText();
+        }
+    }
+
+    private List<Path> shardPaths(int count) throws JsonUtilsException {
+        Path source = Paths.get(filePath).toAbsolutePath();
+        Path dir = outputDir != null ? outputDir : source.getParent();
+        String name = source.getFileName().toString();
+        if (name.endsWith(".json")) {
+            name = name.substring(0, name.length() - ".json".length());
+        }
+        try {
+            Files.createDirectories(dir);
+        } catch (IOException e) {
+            throw new JsonUtilsException("Failed to create output directory: " + dir, e);
+        }
+        List<Path> paths = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            paths.add(dir.resolve(String.format("%s-%05d.json", name, i)));
+        }
+        return paths;
+    }
+
+    /**
+     * Waits for every task, returning the first failure (the given one if already set).
+     */
+    private JsonUtilsException await(List<Future<Void>> futures, JsonUtilsException failure) {
+        for (Future<Void> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                if (failure == null) {
+                    failure = new JsonUtilsException("Failed to write shard of JSON file: " + filePath, e.getCause());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                if (failure == null) {
+                    failure = new JsonUtilsException("Interrupted while splitting JSON file: " + filePath, e);
+                }
+            }
+        }
+        return failure;
+    }
+
+    private static void putQuietly(BlockingQueue<Routed> queue, Routed routed) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                queue.put(routed);
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * One buffered record on its way to a shard.
+     */
+    private static final class Routed {
+        private static final Routed END = new Routed(-1, null);
+
+        private final int shard;
+        private final TokenBuffer buffer;
+
+        Routed(int shard, TokenBuffer buffer) {
+            this.shard = shard;
+            this.buffer = buffer;
+        }
+    }
+}
@@ -0,0 +1,264 @@
+package org.json.utils.jsonUtils;
+
+import com.example.jsonutils.exceptions.JsonUtilsException;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Collects many record mutations for a JSON array file and applies them with one
+ * streaming read-modify-write pass.
+ * <p>
+ * Every update and delete is matched against the record as stored in the file. When a delete
+ * matches, the record is dropped; otherwise the last matching update (in the order the operations
+ * were added) replaces it. Added records are appended after the existing ones. Unlike the single
+ * record methods of {@link JsonDataUtils}, operations that match nothing do not fail; the
+ * returned {@link Result} reports how many records each operation matched.
+ * <pre>
+ * JsonBatch.Result result = JsonDataUtils.batch("users.json")
+ *         .updateByKey("id", "42", updated)
+ *         .delete(n -&gt; n.path("inactive").asBoolean())
+ *         .add(newUser)
+ *         .apply();
+ * </pre>
+ */
+public class JsonBatch {
+    private static final ObjectMapper mapper = JsonStreamSupport.mapper;
+
+    private final String filePath;
+    private final List<Operation> operations = new ArrayList<>();
+    private final List<Integer> predicateOps = new ArrayList<>();
+    // key name -> key value -> operation indices
+    private final Map<String, Map<String, List<Integer>>> keyedOps = new HashMap<>();
+    private final List<JsonNode> additions = new ArrayList<>();
+    private JsonWriteOptions options = JsonWriteOptions.PRETTY;
+
+    JsonBatch(String filePath) {
+        this.filePath = filePath;
+    }
+
+    /**
+     * Sets the write options of the rewritten file (pretty printed by default).
+     * @param options Output format, buffering and fsync settings
+     * @return this batch
+     */
+    public JsonBatch options(JsonWriteOptions options) {
+        this.options = options;
+        return this;
+    }
+
+    /**
+     * Appends a record at the end of the array.
+     * @param newRecord JsonNode to add
+     * @return this batch
+     */
+    public JsonBatch add(JsonNode newRecord) {
+        operations.add(new Operation(Kind.ADD, null, newRecord));
+        additions.add(newRecord);
+        return this;
+    }
+
+    /**
+     * Replaces every record matching the condition.
+     * @param condition Predicate to match record
+     * @param updatedRecord New record to replace
+     * @return this batch
+     */
+    public JsonBatch update(Predicate<JsonNode> condition, JsonNode updatedRecord) {
+        predicateOps.add(operations.size());
+        operations.add(new Operation(Kind.UPDATE, condition, updatedRecord));
+        return this;
+    }
+
+    /**
+     * Replaces every record whose top-level key has the given value.
+     * Keyed operations are looked up by hash, so large batches stay cheap per record.
+     * @param key Top-level key
+     * @param value Value to match (as {@link JsonNode#asText()})
+     * @param updatedRecord New record to replace
+     * @return this batch
+     */
+    public JsonBatch updateByKey(String key, String value, JsonNode updatedRecord) {
+        registerKeyed(key, value);
+        operations.add(new Operation(Kind.UPDATE, null, updatedRecord));
+        return this;
+    }
+
+    /**
+     * Deletes every record matching the condition.
+     * @param condition Predicate to match record
+     * @return this batch
+     */
+    public JsonBatch delete(Predicate<JsonNode> condition) {
+        predicateOps.add(operations.size());
+        operations.add(new Operation(Kind.DELETE, condition, null));
+        return this;
+    }
+
+    /**
+     * Deletes every record whose top-level key has the given value.
+     * @param key Top-level key
+     * @param value Value to match (as {@link JsonNode#asText()})
+     * @return this batch
+     */
+    public JsonBatch deleteByKey(String key, String value) {
+        registerKeyed(key, value);
+        operations.add(new Operation(Kind.DELETE, null, null));
+        return this;
+    }
+
+    /**
+     * Applies all operations in one pass over the file and writes the result once.
+     * @return Per-operation match counts
+     * @throws JsonUtilsException if the root is not an array or IO error occurs
+     */
+    public Result apply() throws JsonUtilsException {
+        int[] counts = new int[operations.size()];
+        Path target = Paths.get(filePath);
+        Path temp = null;
+        try (JsonParser parser = JsonStreamSupport.openArray(filePath)) {
+            temp = JsonStreamSupport.createSiblingTemp(target);
+            try (FileOutputStream file = new FileOutputStream(temp.toFile());
+                 JsonGenerator generator = options.createGenerator(mapper, file)) {
+                generator.writeStartArray();
+                while (parser.nextToken() != JsonToken.END_ARRAY) {
+                    JsonNode record = mapper.readTree(parser);
+                    JsonNode result = applyTo(record, counts);
+                    if (result != null) {
+                        mapper.writeTree(generator, result);
+                    }
+                }
+                for (JsonNode addition : additions) {
+                    mapper.writeTree(generator, addition);
+                }
+                generator.writeEndArray();
+                generator.flush();
+                options.sync(file);
+            }
+            JsonStreamSupport.replaceWith(temp, target);
+        } catch (IOException e) {
+            JsonStreamSupport.deleteQuietly(temp);
+            throw new JsonUtilsException("Failed to apply batch to JSON file: " + filePath, e);
+        }
+        for (int i = 0; i < operations.size(); i++) {
+            if (operations.get(i).kind == Kind.ADD) {
+                counts[i] = 1;
+            }
+        }
+        return new Result(counts);
+    }
+
+    /**
+     * @return Record to write, or null if it was deleted
+     */
+    private JsonNode applyTo(JsonNode record, int[] counts) {
+        int lastUpdate = -1;
+        boolean deleted = false;
+        for (int index : predicateOps) {
+            Operation op = operations.get(index);
+            if (op.condition.test(record)) {
+                counts[index]++;
+                if (op.kind == Kind.DELETE) {
+                    deleted = true;
+                } else {
+                    lastUpdate = Math.max(lastUpdate, index);
+                }
+            }
+        }
+        if (!keyedOps.isEmpty() && record.isObject()) {
+            for (Map.Entry<String, Map<String, List<Integer>>> byKey : keyedOps.entrySet()) {
+                JsonNode keyNode = record.get(byKey.getKey());
+                if (keyNode == null) {
+                    continue;
+                }
+                List<Integer> matched = byKey.getValue().get(keyNode.asText());
+                if (matched == null) {
+                    continue;
+                }
+                for (int index : matched) {
+                    counts[index]++;
+                    if (operations.get(index).kind == Kind.DELETE) {
+                        deleted = true;
+                    } else {
+                        lastUpdate = Math.max(lastUpdate, index);
+                    }
+                }
+            }
+        }
+        if (deleted) {
+            return null;
+        }
+        return lastUpdate >= 0 ? operations.get(lastUpdate).record : record;
+    }
+
+    private void registerKeyed(String key, String value) {
+        keyedOps.computeIfAbsent(key, k -> new HashMap<>())
+                .computeIfAbsent(value, v -> new ArrayList<>())
+                .add(operations.size());
+    }
+
+    private enum Kind { ADD, UPDATE, DELETE }
+
+    private static class Operation {
+        private final Kind kind;
+        private final Predicate<JsonNode> condition;
+        private final JsonNode record;
+
+        Operation(Kind kind, Predicate<JsonNode> condition, JsonNode record) {
+            this.kind = kind;
+            this.condition = condition;
+            this.record = record;
+        }
+    }
+
+    /**
+     * Match counts of an applied batch, indexed by the order operations were added.
+     */
+    public static class Result {
+        private final int[] counts;
+
+        Result(int[] counts) {
+            this.counts = counts;
+        }
+
+        public int getMatchCount(int operationIndex) {
+            return counts[operationIndex];
+        }
+
+        public int getOperationCount() {
+            return counts.length;
+        }
+
+        public long getTotalMatched() {
+            long total = 0;
+            for (int count : counts) {
+                total += count;
+            }
+            return total;
+        }
+
+        /**
+         * @return Indices of operations that matched no record
+         */
+        public List<Integer> getUnmatchedOperations() {
+            List<Integer> unmatched = new ArrayList<>();
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] == 0) {
+                    unmatched.add(i);
+                }
+            }
+            return unmatched;
+        }
+    }
+}
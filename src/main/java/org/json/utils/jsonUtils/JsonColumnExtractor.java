@@ -0,0 +1,324 @@
+package org.json.utils.jsonUtils;
+
+import com.example.jsonutils.exceptions.JsonUtilsException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Streams a JSON array file and extracts numeric field paths into primitive columns.
+ * Values are read with the parser's numeric accessors; no JsonNode or boxed number is created.
+ * Every top-level element is one row. A row is null in a column when the path is absent,
+ * JSON null, or not a number; nulls are tracked in a bitmap and stored as 0.
+ * Columns live in growable {@code double[]}/{@code long[]} arrays, or in direct (off-heap)
+ * buffers in native byte order when {@link #offHeap(boolean)} is set.
+ * <pre>
+ * JsonColumnExtractor.Columns columns = JsonColumnExtractor.of("orders.json")
+ *         .doubleColumn("price")
+ *         .longColumn("latency_ms")
+ *         .extract();
+ * double[] prices = columns.getColumn("price").toDoubleArray();
+ * </pre>
+ */
+public class JsonColumnExtractor {
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final long MAX_BUFFER_BYTES = Integer.MAX_VALUE / Long.BYTES * Long.BYTES;
+
+    private final String filePath;
+    private final List<String> paths = new ArrayList<>();
+    private final List<Boolean> integral = new ArrayList<>();
+    private boolean offHeap;
+
+    private JsonColumnExtractor(String filePath) {
+        this.filePath = filePath;
+    }
+
+    /**
+     * @param filePath Path to the JSON file (root should be an array)
+     * @return New extractor with no columns
+     */
+    public static JsonColumnExtractor of(String filePath) {
+        return new JsonColumnExtractor(filePath);
+    }
+
+    /**
+     * Adds a floating point column.
+     * @param path Plain field path (e.g. "price" or "stats.mean")
+     * @return this extractor
+     */
+    public JsonColumnExtractor doubleColumn(String path) {
+        return column(path, false);
+    }
+
+    /**
+     * Adds an integer column. Fractional values are truncated toward zero.
+     * @param path Plain field path (e.g. "latency_ms")
+     * @return this extractor
+     */
+    public JsonColumnExtractor longColumn(String path) {
+        return column(path, true);
+    }
+
+    /**
+     * @param offHeap Whether to store columns in direct buffers instead of heap arrays
+     * @return this extractor
+     */
+    public JsonColumnExtractor offHeap(boolean offHeap) {
+        this.offHeap = offHeap;
+        return this;
+    }
+
+    /**
+     * Streams the file once and fills all columns.
+     * @return Extracted columns
+     * @throws JsonUtilsException if the file cannot be read or root is not an array
+     * @throws IllegalArgumentException if a path uses indices or wildcards
+     */
+    public Columns extract() throws JsonUtilsException {
+        JsonFieldExtractor extractor = new JsonFieldExtractor(paths, new boolean[paths.size()]);
+        Column[] columns = new Column[paths.size()];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = new Column(paths.get(i), integral.get(i), offHeap);
+        }
+        int rows = 0;
+        try (JsonParser parser = JsonStreamSupport.openArray(filePath)) {
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                extractor.read(parser);
+                for (int slot = 0; slot < columns.length; slot++) {
+                    columns[slot].append(extractor, slot, rows);
+                }
+                rows++;
+            }
+        } catch (IOException e) {
+            throw new JsonUtilsException("Failed to extract columns from JSON file: " + filePath, e);
+        }
+        Map<String, Column> byPath = new LinkedHashMap<>();
+        for (Column column : columns) {
+            column.trim();
+            byPath.put(column.path, column);
+        }
+        return new Columns(rows, byPath);
+    }
+
+    private JsonColumnExtractor column(String path, boolean isLong) {
+        if (paths.contains(path)) {
+            throw new IllegalArgumentException("Column already added: " + path);
+        }
+        paths.add(path);
+        integral.add(isLong);
+        return this;
+    }
+
+    /**
+     * Result of an extraction: one column per requested path, all with the same row count.
+     */
+    public static class Columns {
+        private final int rowCount;
+        private final Map<String, Column> columns;
+
+        Columns(int rowCount, Map<String, Column> columns) {
+            this.rowCount = rowCount;
+            this.columns = columns;
+        }
+
+        public int getRowCount() {
+            return rowCount;
+        }
+
+        /**
+         * @param path Path the column was added with
+         * @return Column, or null if no column was requested for the path
+         */
+        public Column getColumn(String path) {
+            return columns.get(path);
+        }
+
+        /**
+         * @return Columns in the order they were added
+         */
+        public List<Column> getColumns() {
+            return new ArrayList<>(columns.values());
+        }
+    }
+
+    /**
+     * One primitive column with its null bitmap.
+     */
+    public static class Column {
+        private final String path;
+        private final boolean isLong;
+        private final BitSet nulls = new BitSet();
+        private double[] doubles;
+        private long[] longs;
+        private ByteBuffer buffer;
+        private int size;
+
+        Column(String path, boolean isLong, boolean offHeap) {
+            this.path = path;
+            this.isLong = isLong;
+            if (offHeap) {
+                buffer = ByteBuffer.allocateDirect(INITIAL_CAPACITY * Long.BYTES).order(ByteOrder.nativeOrder());
+            } else if (isLong) {
+                longs = new long[INITIAL_CAPACITY];
+            } else {
+                doubles = new double[INITIAL_CAPACITY];
+            }
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        /**
+         * @return true for a {@code long} column, false for a {@code double} column
+         */
+        public boolean isLong() {
+            return isLong;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public boolean isNull(int row) {
+            return nulls.get(row);
+        }
+
+        /**
+         * @return Rows that are null, as a bitmap (set bit = null); a copy
+         */
+        public BitSet getNulls() {
+            return (BitSet) nulls.clone();
+        }
+
+        /**
+         * @param row Row index
+         * @return Value as double (0 for null rows)
+         */
+        public double getDouble(int row) {
+            checkRow(row);
+            if (buffer != null) {
+                return isLong ? buffer.getLong(row * Long.BYTES) : buffer.getDouble(row * Double.BYTES);
+            }
+            return isLong ? longs[row] : doubles[row];
+        }
+
+        /**
+         * @param row Row index
+         * @return Value as long, truncated for double columns (0 for null rows)
+         */
+        public long getLong(int row) {
+            checkRow(row);
+            if (buffer != null) {
+                return isLong ? buffer.getLong(row * Long.BYTES) : (long) buffer.getDouble(row * Double.BYTES);
+            }
+            return isLong ? longs[row] : (long) doubles[row];
+        }
+
+        /**
+         * @return Values as a new double array of length {@link #size()}
+         */
+        public double[] toDoubleArray() {
+            if (buffer == null && !isLong) {
+                return Arrays.copyOf(doubles, size);
+            }
+            double[] result = new double[size];
+            for (int i = 0; i < size; i++) {
+                result[i] = getDouble(i);
+            }
+            return result;
+        }
+
+        /**
+         * @return Values as a new long array of length {@link #size()}
+         */
+        public long[] toLongArray() {
+            if (buffer == null && isLong) {
+                return Arrays.copyOf(longs, size);
+            }
+            long[] result = new long[size];
+            for (int i = 0; i < size; i++) {
+                result[i] = getLong(i);
+            }
+            return result;
+        }
+
+        /**
+         * Read-only view of the off-heap storage: {@link #size()} 8-byte values in native order,
+         * longs or doubles depending on {@link #isLong()}.
+         * @return Buffer positioned at 0, or null if the column is stored on the heap
+         */
+        public ByteBuffer getBuffer() {
+            if (buffer == null) {
+                return null;
+            }
+            return buffer.asReadOnlyBuffer().order(buffer.order()).position(0).limit(size * Long.BYTES);
+        }
+
+        void append(JsonFieldExtractor extractor, int slot, int row) {
+            ensureCapacity(row + 1);
+            boolean present = extractor.hasNumber(slot);
+            if (!present) {
+                nulls.set(row);
+            }
+            if (isLong) {
+                long value = !present ? 0 : extractor.isIntegral(slot)
+                        ? extractor.longValue(slot) : (long) extractor.doubleValue(slot);
+                if (buffer != null) {
+                    buffer.putLong(row * Long.BYTES, value);
+                } else {
+                    longs[row] = value;
+                }
+            } else {
+                double value = present ? extractor.doubleValue(slot) : 0;
+                if (buffer != null) {
+                    buffer.putDouble(row * Double.BYTES, value);
+                } else {
+                    doubles[row] = value;
+                }
+            }
+            size = row + 1;
+        }
+
+        void trim() {
+            if (doubles != null && doubles.length != size) {
+                doubles = Arrays.copyOf(doubles, size);
+            } else if (longs != null && longs.length != size) {
+                longs = Arrays.copyOf(longs, size);
+            }
+        }
+
+        private void ensureCapacity(int rows) {
+            if (buffer != null) {
+                long needed = (long) rows * Long.BYTES;
+                if (needed > buffer.capacity()) {
+                    if (needed > MAX_BUFFER_BYTES) {
+                        throw new IllegalStateException("Column " + path + " exceeds the size of one direct buffer");
+                    }
+                    long grown = Math.min(Math.max(needed, (long) buffer.capacity() * 2), MAX_BUFFER_BYTES);
+                    ByteBuffer larger = ByteBuffer.allocateDirect((int) grown).order(ByteOrder.nativeOrder());
+                    larger.put(buffer.duplicate().position(0).limit(size * Long.BYTES));
+                    buffer = larger;
+                }
+            } else if (longs != null && rows > longs.length) {
+                longs = Arrays.copyOf(longs, Math.max(rows, longs.length * 2));
+            } else if (doubles != null && rows > doubles.length) {
+                doubles = Arrays.copyOf(doubles, Math.max(rows, doubles.length * 2));
+            }
+        }
+
+        private void checkRow(int row) {
+            if (row < 0 || row >= size) {
+                throw new IndexOutOfBoundsException("Row " + row + " out of range for size " + size);
+            }
+        }
+    }
+}
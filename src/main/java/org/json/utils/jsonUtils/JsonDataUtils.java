@@ -1,12 +1,17 @@
 package org.json.utils.jsonUtils;
 
 import com.example.jsonutils.exceptions.JsonUtilsException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.Collection;
 import java.util.Iterator;
+import java.util.List;
 import java.util.function.Predicate;
 
 /**
@@ -30,14 +35,49 @@ public class JsonDataUtils {
     }
 
     /**
-     * Converts an object to JSON and writes to file.
+     * Parses JSON from file keeping only the given paths of each record.
+     * Excluded subtrees are skipped at parse time and never allocated as nodes.
+     * @param filePath Path to the JSON file
+     * @param paths Paths to keep, relative to each array element (or to the root object)
+     * @return JsonNode with the projected content
+     * @throws JsonUtilsException if parsing fails
+     */
+    public static JsonNode parseJsonFromFile(String filePath, Collection<String> paths) throws JsonUtilsException {
+        JsonProjectionFilter projection = JsonProjectionFilter.compile(paths);
+        try (JsonParser parser = mapper.getFactory().createParser(new File(filePath))) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                return parser.currentToken() == null ? null : projection.readRecord(parser);
+            }
+            ArrayNode array = mapper.createArrayNode();
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                array.add(projection.readRecord(parser));
+            }
+            return array;
+        } catch (IOException e) {
+            throw new JsonUtilsException("Failed to parse JSON from file: " + filePath, e);
+        }
+    }
+
+    /**
+     * Converts an object to pretty printed JSON and writes to file.
      * @param filePath Path to the file
      * @param obj Object to serialize
      * @throws JsonUtilsException if serialization fails
      */
     public static void objectToJsonFile(String filePath, Object obj) throws JsonUtilsException {
+        objectToJsonFile(filePath, obj, JsonWriteOptions.PRETTY);
+    }
+
+    /**
+     * Converts an object to JSON and writes to file with the given write options.
+     * @param filePath Path to the file
+     * @param obj Object to serialize
+     * @param options Output format, buffering and fsync settings
+     * @throws JsonUtilsException if serialization fails
+     */
+    public static void objectToJsonFile(String filePath, Object obj, JsonWriteOptions options) throws JsonUtilsException {
         try {
-            mapper.writerWithDefaultPrettyPrinter().writeValue(new File(filePath), obj);
+            options.writeValue(mapper, filePath, obj);
         } catch (IOException e) {
             throw new JsonUtilsException("Failed to write object to JSON file: " + filePath, e);
         }
@@ -50,13 +90,71 @@ public class JsonDataUtils {
      * @throws JsonUtilsException if operation fails
      */
     public static void addRecord(String filePath, JsonNode newRecord) throws JsonUtilsException {
+        addRecord(filePath, newRecord, JsonWriteOptions.PRETTY);
+    }
+
+    /**
+     * Adds a new record to a JSON array in file with the given write options.
+     * @param filePath Path to the file
+     * @param newRecord JsonNode to add
+     * @param options Output format, buffering and fsync settings
+     * @throws JsonUtilsException if operation fails
+     */
+    public static void addRecord(String filePath, JsonNode newRecord, JsonWriteOptions options) throws JsonUtilsException {
         JsonNode root = parseJsonFromFile(filePath);
         if (!(root instanceof ArrayNode)) {
             throw new JsonUtilsException("Root is not a JSON array: " + filePath);
         }
         ArrayNode array = (ArrayNode) root;
         array.add(newRecord);
-        objectToJsonFile(filePath, array);
+        objectToJsonFile(filePath, array, options);
+    }
+
+    /**
+     * Appends a record to a JSON array in file without parsing or rewriting the existing records.
+     * Handles empty arrays and trailing whitespace after the closing bracket.
+     * @param filePath Path to the file
+     * @param newRecord JsonNode to append
+     * @throws JsonUtilsException if the root is not an array or IO error occurs
+     */
+    public static void appendRecord(String filePath, JsonNode newRecord) throws JsonUtilsException {
+        appendRecords(filePath, List.of(newRecord));
+    }
+
+    /**
+     * Appends a record to a JSON array in file in place, with the given write options.
+     * @param filePath Path to the file
+     * @param newRecord JsonNode to append
+     * @param options Output format, buffering and fsync settings
+     * @throws JsonUtilsException if the root is not an array or IO error occurs
+     */
+    public static void appendRecord(String filePath, JsonNode newRecord, JsonWriteOptions options) throws JsonUtilsException {
+        appendRecords(filePath, List.of(newRecord), options);
+    }
+
+    /**
+     * Appends a batch of records to a JSON array in file with a single in-place write.
+     * @param filePath Path to the file
+     * @param newRecords JsonNodes to append, in order
+     * @throws JsonUtilsException if the root is not an array or IO error occurs
+     */
+    public static void appendRecords(String filePath, List<? extends JsonNode> newRecords) throws JsonUtilsException {
+        appendRecords(filePath, newRecords, JsonWriteOptions.PRETTY);
+    }
+
+    /**
+     * Appends a batch of records to a JSON array in file with a single in-place write, with the given write options.
+     * @param filePath Path to the file
+     * @param newRecords JsonNodes to append, in order
+     * @param options Output format, buffering and fsync settings
+     * @throws JsonUtilsException if the root is not an array or IO error occurs
+     */
+    public static void appendRecords(String filePath, List<? extends JsonNode> newRecords, JsonWriteOptions options) throws JsonUtilsException {
+        try {
+            JsonArrayAppender.append(Paths.get(filePath), newRecords, options);
+        } catch (IOException e) {
+            throw new JsonUtilsException("Failed to append records to JSON file: " + filePath, e);
+        }
     }
 
     /**
@@ -67,6 +165,18 @@ public class JsonDataUtils {
      * @throws JsonUtilsException if operation fails
      */
     public static void updateRecord(String filePath, Predicate<JsonNode> condition, JsonNode updatedRecord) throws JsonUtilsException {
+        updateRecord(filePath, condition, updatedRecord, JsonWriteOptions.PRETTY);
+    }
+
+    /**
+     * Updates a record by condition with the given write options.
+     * @param filePath Path to the file
+     * @param condition Predicate to match record
+     * @param updatedRecord New record to replace
+     * @param options Output format, buffering and fsync settings
+     * @throws JsonUtilsException if operation fails
+     */
+    public static void updateRecord(String filePath, Predicate<JsonNode> condition, JsonNode updatedRecord, JsonWriteOptions options) throws JsonUtilsException {
         JsonNode root = parseJsonFromFile(filePath);
         if (!(root instanceof ArrayNode)) {
             throw new JsonUtilsException("Root is not a JSON array: " + filePath);
@@ -82,7 +192,7 @@ public class JsonDataUtils {
         if (!updated) {
             throw new JsonUtilsException("No matching record found to update.");
         }
-        objectToJsonFile(filePath, array);
+        objectToJsonFile(filePath, array, options);
     }
 
     /**
@@ -92,6 +202,17 @@ public class JsonDataUtils {
      * @throws JsonUtilsException if operation fails
      */
     public static void deleteRecord(String filePath, Predicate<JsonNode> condition) throws JsonUtilsException {
+        deleteRecord(filePath, condition, JsonWriteOptions.PRETTY);
+    }
+
+    /**
+     * Deletes a record by condition with the given write options.
+     * @param filePath Path to the file
+     * @param condition Predicate to match record
+     * @param options Output format, buffering and fsync settings
+     * @throws JsonUtilsException if operation fails
+     */
+    public static void deleteRecord(String filePath, Predicate<JsonNode> condition, JsonWriteOptions options) throws JsonUtilsException {
         JsonNode root = parseJsonFromFile(filePath);
         if (!(root instanceof ArrayNode)) {
             throw new JsonUtilsException("Root is not a JSON array: " + filePath);
@@ -108,7 +229,75 @@ public class JsonDataUtils {
         if (!deleted) {
             throw new JsonUtilsException("No matching record found to delete.");
         }
-        objectToJsonFile(filePath, array);
+        objectToJsonFile(filePath, array, options);
+    }
+
+    /**
+     * Starts a batch of add/update/delete operations applied with a single read-modify-write pass.
+     * @param filePath Path to the file
+     * @return New batch for the file
+     */
+    public static JsonBatch batch(String filePath) {
+        return new JsonBatch(filePath);
+    }
+
+    /**
+     * Inserts or replaces records by key in one streaming pass over the file.
+     * Records whose key matches a delta record are replaced, others are kept, and delta records
+     * with unseen keys are appended. The file is replaced atomically.
+     * @param filePath Path to the file
+     * @param keyPath Path of the key in each record (e.g. "id" or "meta.uuid")
+     * @param delta Records to insert or replace
+     * @return Counts of replaced and inserted records
+     * @throws JsonUtilsException if a delta record has no key or operation fails
+     */
+    public static JsonUpsert.Result upsertRecords(String filePath, String keyPath, Collection<? extends JsonNode> delta) throws JsonUtilsException {
+        return upsertRecords(filePath, keyPath, delta, JsonWriteOptions.PRETTY);
+    }
+
+    /**
+     * Inserts or replaces records by key in one streaming pass, with the given write options.
+     * @param filePath Path to the file
+     * @param keyPath Path of the key in each record (e.g. "id" or "meta.uuid")
+     * @param delta Records to insert or replace
+     * @param options Output format, buffering and fsync settings
+     * @return Counts of replaced and inserted records
+     * @throws JsonUtilsException if a delta record has no key or operation fails
+     */
+    public static JsonUpsert.Result upsertRecords(String filePath, String keyPath, Collection<? extends JsonNode> delta, JsonWriteOptions options) throws JsonUtilsException {
+        return JsonUpsert.merge(filePath, keyPath, delta, options);
+    }
+
+    /**
+     * Sorts the records of a JSON array file ascending by the given key paths, spilling to disk
+     * when they do not fit in memory. Use {@link JsonExternalSort} for descending keys or tuning.
+     * @param filePath Path to the file
+     * @param outputPath Path of the sorted file (may equal filePath)
+     * @param keyPaths Key paths, most significant first
+     * @throws JsonUtilsException if operation fails
+     */
+    public static void sortRecords(String filePath, String outputPath, String... keyPaths) throws JsonUtilsException {
+        JsonExternalSort sort = JsonExternalSort.of(filePath);
+        for (String keyPath : keyPaths) {
+            sort.thenBy(keyPath);
+        }
+        sort.toArrayFile(outputPath);
+    }
+
+    /**
+     * Sorts the records of a JSON array file ascending by the given key paths, with the given write options.
+     * @param filePath Path to the file
+     * @param outputPath Path of the sorted file (may equal filePath)
+     * @param options Output format, buffering and fsync settings
+     * @param keyPaths Key paths, most significant first
+     * @throws JsonUtilsException if operation fails
+     */
+    public static void sortRecords(String filePath, String outputPath, JsonWriteOptions options, String... keyPaths) throws JsonUtilsException {
+        JsonExternalSort sort = JsonExternalSort.of(filePath).options(options);
+        for (String keyPath : keyPaths) {
+            sort.thenBy(keyPath);
+        }
+        sort.toArrayFile(outputPath);
     }
 
     /**
@@ -118,6 +307,17 @@ public class JsonDataUtils {
      * @throws JsonUtilsException if operation fails
      */
     public static void replaceJsonContent(String filePath, JsonNode newContent) throws JsonUtilsException {
-        objectToJsonFile(filePath, newContent);
+        replaceJsonContent(filePath, newContent, JsonWriteOptions.PRETTY);
+    }
+
+    /**
+     * Replaces entire JSON content in file with the given write options.
+     * @param filePath Path to the file
+     * @param newContent New JsonNode content
+     * @param options Output format, buffering and fsync settings
+     * @throws JsonUtilsException if operation fails
+     */
+    public static void replaceJsonContent(String filePath, JsonNode newContent, JsonWriteOptions options) throws JsonUtilsException {
+        objectToJsonFile(filePath, newContent, options);
     }
 }
@@ -0,0 +1,432 @@
+package org.json.utils.jsonUtils;
+
+import com.example.jsonutils.exceptions.JsonUtilsException;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * External merge sort for JSON array files that do not fit in memory.
+ * Records are streamed into batches bounded by a memory budget; each batch is sorted on a
+ * fork/join pool and spilled to a temporary JSON Lines run file, and the runs are then k-way
+ * merged into the output. The sort is stable and supports several keys on nested paths.
+ * <pre>
+ * JsonExternalSort.of("events.json")
+ *         .by("customer.id")
+ *         .thenBy("timestamp", false)
+ *         .memoryBudget(256L * 1024 * 1024)
+ *         .toArrayFile("events-sorted.json");
+ * </pre>
+ * Key values are ordered by type first (missing and null, then numbers, strings, booleans and
+ * containers) and by value within a type.
+ */
+public class JsonExternalSort {
+    /** Rough heap cost of a parsed record relative to its serialized size. */
+    private static final int NODE_OVERHEAD = 4;
+    private static final long DEFAULT_MEMORY_BUDGET = 64L * 1024 * 1024;
+    private static final ObjectMapper mapper = JsonStreamSupport.mapper;
+
+    private final String filePath;
+    private final List<CompiledJsonPath> keyPaths = new ArrayList<>();
+    private final List<Boolean> ascending = new ArrayList<>();
+    private long memoryBudget = DEFAULT_MEMORY_BUDGET;
+    private ForkJoinPool pool = ForkJoinPool.commonPool();
+    private Path tempDir;
+    private JsonWriteOptions options = JsonWriteOptions.PRETTY;
+
+    private JsonExternalSort(String filePath) {
+        this.filePath = filePath;
+    }
+
+    /**
+     * Starts a sort of a JSON array file.
+     * @param filePath Path to the JSON file (root should be an array)
+     * @return New sort
+     */
+    public static JsonExternalSort of(String filePath) {
+        return new JsonExternalSort(filePath);
+    }
+
+    /**
+     * Sets the primary (ascending) key.
+     * @param path Key path
+     * @return this sort
+     */
+    public JsonExternalSort by(String path) {
+        return thenBy(path, true);
+    }
+
+    /**
+     * Adds a secondary ascending key.
+     * @param path Key path
+     * @return this sort
+     */
+    public JsonExternalSort thenBy(String path) {
+        return thenBy(path, true);
+    }
+
+    /**
+     * Adds a key with the given direction.
+     * @param path Key path
+     * @param ascendingOrder false for descending
+     * @return this sort
+     */
+    public JsonExternalSort thenBy(String path, boolean ascendingOrder) {
+        keyPaths.add(CompiledJsonPath.compile(path));
+        ascending.add(ascendingOrder);
+        return this;
+    }
+
+    /**
+     * Sets the approximate heap to use for records held in memory across all concurrent runs.
+     * @param bytes Memory budget in bytes
+     * @return this sort
+     */
+    public JsonExternalSort memoryBudget(long bytes) {
+        this.memoryBudget = bytes;
+        return this;
+    }
+
+    /**
+     * Sets the pool used to sort runs in parallel.
+     * @param pool Fork/join pool
+     * @return this sort
+     */
+    public JsonExternalSort pool(ForkJoinPool pool) {
+        this.pool = pool;
+        return this;
+    }
+
+    /**
+     * Sets the directory for temporary run files (defaults to the output file's directory).
+     * @param dir Directory for run files
+     * @return this sort
+     */
+    public JsonExternalSort tempDir(String dir) {
+        this.tempDir = Paths.get(dir);
+        return this;
+    }
+
+    /**
+     * Sets the write options of the sorted file (pretty printed by default). JSON Lines output
+     * always has one record per line; only the buffering and fsync settings apply to it.
+     * @param options Output format, buffering and fsync settings
+     * @return this sort
+     */
+    public JsonExternalSort options(JsonWriteOptions options) {
+        this.options = options;
+        return this;
+    }
+
+    /**
+     * Sorts into a JSON array file, pretty printed unless the write options say otherwise.
+     * @param outputPath Path of the sorted file (may equal the input path)
+     * @throws JsonUtilsException if reading, spilling or writing fails
+     */
+    public void toArrayFile(String outputPath) throws JsonUtilsException {
+        sort(outputPath, true);
+    }
+
+    /**
+     * Sorts into a JSON Lines file, one record per line.
+     * @param outputPath Path of the sorted file
+     * @throws JsonUtilsException if reading, spilling or writing fails
+     */
+    public void toJsonLinesFile(String outputPath) throws JsonUtilsException {
+        sort(outputPath, false);
+    }
+
+    private void sort(String outputPath, boolean array) throws JsonUtilsException {
+        if (keyPaths.isEmpty()) {
+            throw new JsonUtilsException("No sort key given for: " + filePath);
+        }
+        Path output = Paths.get(outputPath);
+        Path runDir = tempDir != null ? tempDir : output.toAbsolutePath().getParent();
+        Comparator<Keyed> comparator = keyComparator();
+        List<Path> runs = new ArrayList<>();
+        Path temp = null;
+        try {
+            List<Keyed> inMemory = buildRuns(runDir, comparator, runs);
+            temp = JsonStreamSupport.createSiblingTemp(output);
+            try (FileOutputStream file = new FileOutputStream(temp.toFile());
+                 JsonGenerator generator = openOutput(file, array)) {
+                if (runs.isEmpty()) {
+                    for (Keyed record : inMemory) {
+                        mapper.writeTree(generator, record.node);
+                    }
+                } else {
+                    merge(runs, comparator, generator);
+                }
+                if (array) {
+                    generator.writeEndArray();
+                }
+                generator.flush();
+                options.sync(file);
+            }
+            JsonStreamSupport.replaceWith(temp, output);
+        } catch (IOException e) {
+            JsonStreamSupport.deleteQuietly(temp);
+            throw new JsonUtilsException("Failed to sort JSON file: " + filePath, e);
+        } finally {
+            for (Path run : runs) {
+                JsonStreamSupport.deleteQuietly(run);
+            }
+        }
+    }
+
+    /**
+     * Streams the input into memory-bounded batches. Batches are sorted and spilled on the pool
+     * while reading continues; at most as many batches as the pool's parallelism are in flight.
+     * @return The sorted records if everything fit in one batch (no runs spilled), else an empty list
+     */
+    private List<Keyed> buildRuns(Path runDir, Comparator<Keyed> comparator, List<Path> runs) throws IOException, JsonUtilsException {
+        int parallelism = Math.max(1, pool.getParallelism());
+        long batchBudget = Math.max(1, memoryBudget / (parallelism + 1));
+        Deque<Future<Path>> inFlight = new ArrayDeque<>();
+        List<Keyed> batch = new ArrayList<>();
+        long batchBytes = 0;
+        try (JsonParser parser = JsonStreamSupport.openArray(filePath)) {
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                long start = parser.currentTokenLocation().getByteOffset();
+                JsonNode node = mapper.readTree(parser);
+                long end = parser.currentTokenLocation().getByteOffset() + 1;
+                batch.add(new Keyed(node, keysOf(node)));
+                batchBytes += Math.max(1, end - start) * NODE_OVERHEAD;
+                if (batchBytes >= batchBudget) {
+                    if (inFlight.size() >= parallelism) {
+                        runs.add(await(inFlight.removeFirst()));
+                    }
+                    List<Keyed> full = batch;
+                    inFlight.addLast(pool.submit(() -> spill(full, comparator, runDir)));
+                    batch = new ArrayList<>();
+                    batchBytes = 0;
+                }
+            }
+            while (!inFlight.isEmpty()) {
+                runs.add(await(inFlight.removeFirst()));
+            }
+        } finally {
+            // only reached with work left on failure: collect spilled runs so they get deleted
+            while (!inFlight.isEmpty()) {
+                Path run = awaitQuietly(inFlight.removeFirst());
+                if (run != null) {
+                    runs.add(run);
+                }
+            }
+        }
+        if (runs.isEmpty()) {
+            batch.sort(comparator);
+            return batch;
+        }
+        if (!batch.isEmpty()) {
+            runs.add(spill(batch, comparator, runDir));
+        }
+        return List.of();
+    }
+
+    private Path spill(List<Keyed> batch, Comparator<Keyed> comparator, Path runDir) throws IOException {
+        batch.sort(comparator);
+        Path run = Files.createTempFile(runDir, "json-sort-", ".run");
+        try (JsonGenerator generator = mapper.getFactory().createGenerator(run.toFile(), JsonEncoding.UTF8)) {
+            generator.setPrettyPrinter(new MinimalPrettyPrinter("\n"));
+            for (Keyed record : batch) {
+                mapper.writeTree(generator, record.node);
+            }
+        } catch (IOException e) {
+            JsonStreamSupport.deleteQuietly(run);
+            throw e;
+        }
+        return run;
+    }
+
+    private void merge(List<Path> runs, Comparator<Keyed> comparator, JsonGenerator generator) throws IOException {
+        PriorityQueue<RunCursor> heap = new PriorityQueue<>(runs.size(), (a, b) -> {
+            int c = comparator.compare(a.current, b.current);
+            return c != 0 ? c : Integer.compare(a.order, b.order);
+        });
+        List<MappingIterator<JsonNode>> readers = new ArrayList<>();
+        try {
+            for (int i = 0; i < runs.size(); i++) {
+                MappingIterator<JsonNode> reader = mapper.readerFor(JsonNode.class).readValues(runs.get(i).toFile());
+                readers.add(reader);
+                RunCursor cursor = new RunCursor(reader, i);
+                if (cursor.advance()) {
+                    heap.add(cursor);
+                }
+            }
+            while (!heap.isEmpty()) {
+                RunCursor cursor = heap.poll();
+                mapper.writeTree(generator, cursor.current.node);
+                if (cursor.advance()) {
+                    heap.add(cursor);
+                }
+            }
+        } finally {
+            for (MappingIterator<JsonNode> reader : readers) {
+                reader.close();
+            }
+        }
+    }
+
+    private JsonGenerator openOutput(FileOutputStream file, boolean array) throws IOException {
+        JsonGenerator generator = options.createGenerator(mapper, file);
+        if (array) {
+            generator.writeStartArray();
+        } else {
+            generator.setPrettyPrinter(new MinimalPrettyPrinter("\n"));
+        }
+        return generator;
+    }
+
+    private JsonNode[] keysOf(JsonNode node) {
+        JsonNode[] keys = new JsonNode[keyPaths.size()];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = keyPaths.get(i).evaluate(node);
+        }
+        return keys;
+    }
+
+    private Comparator<Keyed> keyComparator() {
+        boolean[] asc = new boolean[ascending.size()];
+        for (int i = 0; i < asc.length; i++) {
+            asc[i] = ascending.get(i);
+        }
+        return (a, b) -> {
+            for (int i = 0; i < asc.length; i++) {
+                int c = compareValues(a.keys[i], b.keys[i]);
+                if (c != 0) {
+                    return asc[i] ? c : -c;
+                }
+            }
+            return 0;
+        };
+    }
+
+    /**
+     * Orders values first by type (missing/null, numbers, strings, booleans, containers) and then within the type,
+     * so the ordering stays transitive when a key holds values of mixed types.
+     */
+    static int compareValues(JsonNode a, JsonNode b) {
+        int rank = Integer.compare(typeRank(a), typeRank(b));
+        if (rank != 0) {
+            return rank;
+        }
+        if (a == null || a.isNull() || a.isMissingNode()) {
+            return 0;
+        }
+        if (a.isNumber()) {
+            return compareNumbers(a, b);
+        }
+        if (a.isTextual()) {
+            return a.textValue().compareTo(b.textValue());
+        }
+        if (a.isBoolean()) {
+            return Boolean.compare(a.booleanValue(), b.booleanValue());
+        }
+        return a.toString().compareTo(b.toString());
+    }
+
+    private static int typeRank(JsonNode node) {
+        if (node == null || node.isNull() || node.isMissingNode()) {
+            return 0;
+        }
+        if (node.isNumber()) {
+            return 1;
+        }
+        if (node.isTextual()) {
+            return 2;
+        }
+        if (node.isBoolean()) {
+            return 3;
+        }
+        return 4;
+    }
+
+    private static int compareNumbers(JsonNode a, JsonNode b) {
+        if (a.isIntegralNumber() && b.isIntegralNumber() && a.canConvertToLong() && b.canConvertToLong()) {
+            return Long.compare(a.longValue(), b.longValue());
+        }
+        if (isFinite(a) && isFinite(b)) {
+            return a.decimalValue().compareTo(b.decimalValue());
+        }
+        return Double.compare(a.doubleValue(), b.doubleValue());
+    }
+
+    private static boolean isFinite(JsonNode number) {
+        return !(number.isDouble() || number.isFloat()) || Double.isFinite(number.doubleValue());
+    }
+
+    private static Path await(Future<Path> future) throws IOException, JsonUtilsException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new JsonUtilsException("Interrupted while sorting", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new JsonUtilsException("Failed to sort run", e.getCause());
+        }
+    }
+
+    private static Path awaitQuietly(Future<Path> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            return null;
+        }
+    }
+
+    private static final class Keyed {
+        private final JsonNode node;
+        private final JsonNode[] keys;
+
+        Keyed(JsonNode node, JsonNode[] keys) {
+            this.node = node;
+            this.keys = keys;
+        }
+    }
+
+    private final class RunCursor {
+        private final MappingIterator<JsonNode> reader;
+        private final int order;
+        private Keyed current;
+
+        RunCursor(MappingIterator<JsonNode> reader, int order) {
+            this.reader = reader;
+            this.order = order;
+        }
+
+        boolean advance() throws IOException {
+            if (!reader.hasNextValue()) {
+                return false;
+            }
+            JsonNode node = reader.nextValue();
+            current = new Keyed(node, keysOf(node));
+            return true;
+        }
+    }
+}
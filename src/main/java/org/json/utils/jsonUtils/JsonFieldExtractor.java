@@ -0,0 +1,133 @@
+package org.json.utils.jsonUtils;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Pulls several field paths out of one record in a single token walk, without building nodes.
+ * Numeric values are kept as primitives; text is only materialized for slots that ask for it.
+ * Instances hold per-record state and are not thread-safe; use one per thread.
+ */
+final class JsonFieldExtractor {
+    private final PathNode root = new PathNode();
+    private final boolean[] wantText;
+    private final boolean[] hasNumber;
+    private final boolean[] integral;
+    private final double[] doubles;
+    private final long[] longs;
+    private final String[] texts;
+
+    /**
+     * @param paths Plain field paths (no indices or wildcards); slot i is paths.get(i)
+     * @param wantText Which slots need their value as text (as {@code JsonNode.asText()})
+     * @throws IllegalArgumentException if a path uses indices or wildcards
+     */
+    JsonFieldExtractor(List<String> paths, boolean[] wantText) {
+        this.wantText = wantText.clone();
+        int slots = paths.size();
+        this.hasNumber = new boolean[slots];
+        this.integral = new boolean[slots];
+        this.doubles = new double[slots];
+        this.longs = new long[slots];
+        this.texts = new String[slots];
+        for (int slot = 0; slot < slots; slot++) {
+            String[] fields = CompiledJsonPath.compile(paths.get(slot)).fieldNames();
+            if (fields == null) {
+                throw new IllegalArgumentException("Only plain field paths are supported: " + paths.get(slot));
+            }
+            PathNode node = root;
+            for (String field : fields) {
+                node = node.children.computeIfAbsent(field, f -> new PathNode());
+            }
+            node.slot = slot;
+        }
+    }
+
+    /**
+     * Reads the record at the parser's current token. On return the parser is on the record's last token.
+     * @param parser Parser positioned at the first token of a record
+     * @throws IOException on parse error
+     */
+    void read(JsonParser parser) throws IOException {
+        Arrays.fill(hasNumber, false);
+        Arrays.fill(texts, null);
+        if (parser.currentToken() == JsonToken.START_OBJECT) {
+            walk(parser, root);
+        } else {
+            parser.skipChildren();
+        }
+    }
+
+    boolean hasNumber(int slot) {
+        return hasNumber[slot];
+    }
+
+    boolean isIntegral(int slot) {
+        return integral[slot];
+    }
+
+    double doubleValue(int slot) {
+        return doubles[slot];
+    }
+
+    long longValue(int slot) {
+        return longs[slot];
+    }
+
+    /**
+     * @return Text of the value, or null if the path was absent (only for slots that want text)
+     */
+    String text(int slot) {
+        return texts[slot];
+    }
+
+    private void walk(JsonParser parser, PathNode node) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            PathNode child = node.children.get(parser.currentName());
+            JsonToken token = parser.nextToken();
+            if (child == null) {
+                parser.skipChildren();
+                continue;
+            }
+            if (child.slot >= 0) {
+                capture(parser, token, child.slot);
+            }
+            if (token == JsonToken.START_OBJECT && !child.children.isEmpty()) {
+                walk(parser, child);
+            } else {
+                parser.skipChildren();
+            }
+        }
+    }
+
+    private void capture(JsonParser parser, JsonToken token, int slot) throws IOException {
+        if (token == JsonToken.VALUE_NUMBER_INT) {
+            if (parser.getNumberType() == JsonParser.NumberType.BIG_INTEGER) {
+                integral[slot] = false;
+                doubles[slot] = parser.getDoubleValue();
+            } else {
+                integral[slot] = true;
+                longs[slot] = parser.getLongValue();
+                doubles[slot] = longs[slot];
+            }
+            hasNumber[slot] = true;
+        } else if (token == JsonToken.VALUE_NUMBER_FLOAT) {
+            integral[slot] = false;
+            doubles[slot] = parser.getDoubleValue();
+            hasNumber[slot] = true;
+        }
+        if (wantText[slot]) {
+            texts[slot] = token.isStructStart() ? "" : JsonStreamSupport.scalarText(parser);
+        }
+    }
+
+    private static final class PathNode {
+        private final Map<String, PathNode> children = new HashMap<>();
+        private int slot = -1;
+    }
+}
@@ -0,0 +1,80 @@
+package org.json.utils.jsonUtils;
+
+import java.io.IOException;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.nio.file.Path;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-JVM locks for JSON files, one per canonical path. OS file locks are held per JVM, so
+ * threads writing the same file must be serialized here before they take one. Locks are
+ * weakly referenced and dropped once no thread holds one.
+ */
+final class JsonFileLocks {
+    private static final ConcurrentMap<String, LockRef> locks = new ConcurrentHashMap<>();
+    private static final ReferenceQueue<ReentrantLock> collected = new ReferenceQueue<>();
+
+    private JsonFileLocks() {
+    }
+
+    /**
+     * @param path File path
+     * @return Exclusive lock of the file (not yet acquired); keep the reference until it is released
+     */
+    static ReentrantLock forPath(Path path) {
+        purge();
+        String key = canonical(path);
+        while (true) {
+            LockRef ref = locks.get(key);
+            ReentrantLock lock = ref == null ? null : ref.get();
+            if (lock != null) {
+                return lock;
+            }
+            ReentrantLock created = new ReentrantLock();
+            LockRef fresh = new LockRef(key, created);
+            if (ref == null ? locks.putIfAbsent(key, fresh) == null : locks.replace(key, ref, fresh)) {
+                return created;
+            }
+        }
+    }
+
+    /**
+     * Removes the entries of locks that have been garbage collected.
+     */
+    private static void purge() {
+        LockRef ref;
+        while ((ref = (LockRef) collected.poll()) != null) {
+            locks.remove(ref.key, ref);
+        }
+    }
+
+    /**
+     * Resolves symbolic links and relative segments. Files that do not exist yet are resolved
+     * through their parent directory, so the key stays the same once they are created.
+     */
+    private static String canonical(Path path) {
+        Path file = path.toAbsolutePath().normalize();
+        try {
+            return file.toRealPath().toString();
+        } catch (IOException e) {
+            Path parent = file.getParent();
+            try {
+                return parent == null ? file.toString() : parent.toRealPath().resolve(file.getFileName()).toString();
+            } catch (IOException ignored) {
+                return file.toString();
+            }
+        }
+    }
+
+    private static final class LockRef extends WeakReference<ReentrantLock> {
+        private final String key;
+
+        LockRef(String key, ReentrantLock lock) {
+            super(lock, collected);
+            this.key = key;
+        }
+    }
+}
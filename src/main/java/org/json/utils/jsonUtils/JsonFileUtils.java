@@ -2,7 +2,6 @@ package org.json.utils.jsonUtils;
 
 import com.example.jsonutils.exceptions.JsonUtilsException;
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Paths;
@@ -19,11 +18,22 @@ public class JsonFileUtils {
      * @throws JsonUtilsException if file exists or IO error occurs
      */
     public static void createJsonFile(String filePath, String jsonContent) throws JsonUtilsException {
+        createJsonFile(filePath, jsonContent, JsonWriteOptions.DEFAULT);
+    }
+
+    /**
+     * Creates a new JSON file with the given content and write options.
+     * @param filePath Path to the new file
+     * @param jsonContent JSON content as String
+     * @param options Buffering and fsync settings
+     * @throws JsonUtilsException if file exists or IO error occurs
+     */
+    public static void createJsonFile(String filePath, String jsonContent, JsonWriteOptions options) throws JsonUtilsException {
         File file = new File(filePath);
         if (file.exists()) {
             throw new JsonUtilsException("File already exists: " + filePath);
         }
-        writeJsonFile(filePath, jsonContent);
+        writeJsonFile(filePath, jsonContent, options);
     }
 
     /**
@@ -41,14 +51,25 @@ public class JsonFileUtils {
     }
 
     /**
-     * Writes JSON content to a file (overwrites if exists).
+     * Writes JSON content to a file as UTF-8 (overwrites if exists).
      * @param filePath Path to the file
      * @param jsonContent JSON content as String
      * @throws JsonUtilsException if IO error occurs
      */
     public static void writeJsonFile(String filePath, String jsonContent) throws JsonUtilsException {
-        try (FileWriter writer = new FileWriter(filePath, false)) {
-            writer.write(jsonContent);
+        writeJsonFile(filePath, jsonContent, JsonWriteOptions.DEFAULT);
+    }
+
+    /**
+     * Writes JSON content to a file as UTF-8 with the given write options (overwrites if exists).
+     * @param filePath Path to the file
+     * @param jsonContent JSON content as String
+     * @param options Buffering and fsync settings
+     * @throws JsonUtilsException if IO error occurs
+     */
+    public static void writeJsonFile(String filePath, String jsonContent, JsonWriteOptions options) throws JsonUtilsException {
+        try {
+            options.writeText(filePath, jsonContent);
         } catch (IOException e) {
             throw new JsonUtilsException("Failed to write file: " + filePath, e);
         }
@@ -61,11 +82,22 @@ public class JsonFileUtils {
      * @throws JsonUtilsException if file does not exist or IO error occurs
      */
     public static void updateJsonFile(String filePath, String jsonContent) throws JsonUtilsException {
+        updateJsonFile(filePath, jsonContent, JsonWriteOptions.DEFAULT);
+    }
+
+    /**
+     * Updates an existing JSON file with new content and write options.
+     * @param filePath Path to the file
+     * @param jsonContent New JSON content as String
+     * @param options Buffering and fsync settings
+     * @throws JsonUtilsException if file does not exist or IO error occurs
+     */
+    public static void updateJsonFile(String filePath, String jsonContent, JsonWriteOptions options) throws JsonUtilsException {
         File file = new File(filePath);
         if (!file.exists()) {
             throw new JsonUtilsException("File does not exist: " + filePath);
         }
-        writeJsonFile(filePath, jsonContent);
+        writeJsonFile(filePath, jsonContent, options);
     }
 
     /**
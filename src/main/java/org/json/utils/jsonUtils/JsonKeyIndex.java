@@ -0,0 +1,350 @@
+package org.json.utils.jsonUtils;
+
+import com.example.jsonutils.exceptions.JsonUtilsException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Persistent hash index over one top-level key of a JSON array file.
+ * The index maps each key value (as {@link JsonNode#asText()}) to the byte offset and length of the
+ * records holding it, and is stored in a sidecar file next to the data file
+ * ({@code <file>.<key>.idx}, with unsafe characters of the key percent-encoded). It is built with
+ * one streaming pass and is considered stale as soon as the data file's size or modification time
+ * changes. Since both can survive a rewrite, lookups also check the key of every record they read
+ * and rebuild the index when one does not match.
+ */
+public class JsonKeyIndex {
+    private static final int MAGIC = 0x4A4B4958;
+    private static final int VERSION = 1;
+    private static final ObjectMapper mapper = JsonStreamSupport.mapper;
+    private static final Map<String, JsonKeyIndex> cache = new ConcurrentHashMap<>();
+
+    private final Path dataFile;
+    private final String key;
+    private final long fileSize;
+    private final long fileModified;
+    // value -> packed (offset, length) pairs
+    private final Map<String, long[]> entries;
+
+    private JsonKeyIndex(Path dataFile, String key, long fileSize, long fileModified, Map<String, long[]> entries) {
+        this.dataFile = dataFile;
+        this.key = key;
+        this.fileSize = fileSize;
+        this.fileModified = fileModified;
+        this.entries = entries;
+    }
+
+    /**
+     * Returns an up-to-date index for the given file and key.
+     * A cached instance is reused while the file is unchanged; otherwise the sidecar is loaded,
+     * or rebuilt if it is missing or stale.
+     * @param filePath Path to the JSON file (root should be an array)
+     * @param key Top-level key to index
+     * @return Index for the key
+     * @throws JsonUtilsException if the file cannot be read or indexed
+     */
+    public static JsonKeyIndex forFile(String filePath, String key) throws JsonUtilsException {
+        Path dataFile = Paths.get(filePath).toAbsolutePath().normalize();
+        String cacheKey = cacheKey(dataFile, key);
+        JsonKeyIndex index = cache.get(cacheKey);
+        if (index != null && index.isCurrent()) {
+            return index;
+        }
+        index = load(dataFile, key);
+        if (index == null) {
+            index = build(filePath, key);
+        }
+        cache.put(cacheKey, index);
+        return index;
+    }
+
+    /**
+     * Builds the index with a single streaming pass and writes the sidecar file.
+     * @param filePath Path to the JSON file (root should be an array)
+     * @param key Top-level key to index
+     * @return Freshly built index
+     * @throws JsonUtilsException if the file cannot be read or the sidecar cannot be written
+     */
+    public static JsonKeyIndex build(String filePath, String key) throws JsonUtilsException {
+        Path dataFile = Paths.get(filePath).toAbsolutePath().normalize();
+        String[] keys = {key};
+        Map<String, long[]> entries = new HashMap<>();
+        long size;
+        long modified;
+        try {
+            size = Files.size(dataFile);
+            modified = Files.getLastModifiedTime(dataFile).toMillis();
+        } catch (IOException e) {
+            throw new JsonUtilsException("Failed to read JSON file: " + filePath, e);
+        }
+        try (JsonParser parser = JsonStreamSupport.openArray(filePath)) {
+            int arrayDepth = parser.getParsingContext().getNestingDepth();
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                long start = parser.currentTokenLocation().getByteOffset();
+                String value = null;
+                if (parser.currentToken() == JsonToken.START_OBJECT) {
+                    value = JsonStreamSupport.textAtPath(parser, keys);
+                    JsonStreamSupport.skipToDepth(parser, arrayDepth);
+                } else {
+                    parser.skipChildren();
+                }
+                long end = parser.currentTokenLocation().getByteOffset() + 1;
+                if (value != null) {
+                    add(entries, value, start, end - start);
+                }
+            }
+        } catch (IOException e) {
+            throw new JsonUtilsException("Failed to index JSON file: " + filePath, e);
+        }
+        entries.replaceAll((value, list) -> Arrays.copyOfRange(list, 1, 1 + (int) list[0]));
+        JsonKeyIndex index = new JsonKeyIndex(dataFile, key, size, modified, entries);
+        try {
+            index.save();
+        } catch (IOException e) {
+            throw new JsonUtilsException("Failed to write index file: " + sidecarPath(dataFile, key), e);
+        }
+        return index;
+    }
+
+    /**
+     * Gets the first record whose key has the given value, reading only that record from disk.
+     * If the record read does not hold the value, the index is stale: it is rebuilt and the
+     * lookup repeated on the fresh index.
+     * @param value Value to match
+     * @return Matching JsonNode or null
+     * @throws JsonUtilsException if the record cannot be read
+     */
+    public JsonNode get(String value) throws JsonUtilsException {
+        List<JsonNode> records = read(value, 1, true);
+        if (records == null) {
+            records = rebuild().read(value, 1, false);
+        }
+        return records.isEmpty() ? null : records.get(0);
+    }
+
+    /**
+     * Gets all records whose key has the given value, in file order.
+     * A stale index is rebuilt as for {@link #get(String)}.
+     * @param value Value to match
+     * @return List of matching JsonNodes
+     * @throws JsonUtilsException if the records cannot be read
+     */
+    public List<JsonNode> getAll(String value) throws JsonUtilsException {
+        List<JsonNode> records = read(value, Integer.MAX_VALUE, true);
+        if (records == null) {
+            records = rebuild().read(value, Integer.MAX_VALUE, false);
+        }
+        return records;
+    }
+
+    /**
+     * Reads the indexed records of a value and checks that each one holds it.
+     * @param strict true to give up on the first record that does not match or cannot be read;
+     *               false to skip records that do not match
+     * @return Records read, or null if strict and a record failed
+     */
+    private List<JsonNode> read(String value, int limit, boolean strict) throws JsonUtilsException {
+        long[] packed = entries.get(value);
+        if (packed == null) {
+            return Collections.emptyList();
+        }
+        List<JsonNode> result = new ArrayList<>(Math.min(packed.length / 2, limit));
+        try (FileChannel channel = FileChannel.open(dataFile, StandardOpenOption.READ)) {
+            long size = channel.size();
+            for (int i = 0; i < packed.length && result.size() < limit; i += 2) {
+                JsonNode record = null;
+                if (packed[i] + packed[i + 1] <= size) {
+                    try {
+                        record = readRecord(channel, packed[i], packed[i + 1]);
+                    } catch (JsonProcessingException e) {
+                        // offsets no longer delimit a record
+                    }
+                }
+                JsonNode keyNode = record == null ? null : record.get(key);
+                if (keyNode != null && keyNode.asText().equals(value)) {
+                    result.add(record);
+                } else if (strict) {
+                    return null;
+                }
+            }
+        } catch (IOException e) {
+            throw new JsonUtilsException("Failed to read indexed record from: " + dataFile, e);
+        }
+        return result;
+    }
+
+    /**
+     * Rebuilds the index from the data file and replaces the cached copy.
+     * @return Fresh index
+     */
+    private JsonKeyIndex rebuild() throws JsonUtilsException {
+        JsonKeyIndex fresh = build(dataFile.toString(), key);
+        cache.put(cacheKey(dataFile, key), fresh);
+        return fresh;
+    }
+
+    /**
+     * Checks whether the data file is unchanged since the index was built.
+     * @return true if size and modification time still match
+     */
+    public boolean isCurrent() {
+        try {
+            return Files.size(dataFile) == fileSize
+                    && Files.getLastModifiedTime(dataFile).toMillis() == fileModified;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Adds an (offset, length) pair while building. Lists grow geometrically and keep the number
+     * of used slots in element 0; they are trimmed to packed pairs once the pass is done.
+     */
+    private static void add(Map<String, long[]> entries, String value, long offset, long length) {
+        long[] list = entries.get(value);
+        if (list == null) {
+            list = new long[3];
+            entries.put(value, list);
+        } else if (list[0] + 3 > list.length) {
+            list = Arrays.copyOf(list, list.length * 2 + 1);
+            entries.put(value, list);
+        }
+        list[(int) ++list[0]] = offset;
+        list[(int) ++list[0]] = length;
+    }
+
+    private static String cacheKey(Path dataFile, String key) {
+        return dataFile + "\u0000" + key;
+    }
+
+    private static JsonNode readRecord(FileChannel channel, long offset, long length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate((int) length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, offset + buffer.position()) < 0) {
+                throw new IOException("Index points past end of file");
+            }
+        }
+        return mapper.readTree(buffer.array());
+    }
+
+    /**
+     * @return {@code <file>.<key>.idx}, with characters of the key other than letters, digits,
+     *         '_' and '-' percent-encoded as UTF-8 bytes so the name stays in the data file's directory
+     */
+    private static Path sidecarPath(Path dataFile, String key) {
+        StringBuilder name = new StringBuilder(dataFile.getFileName().toString()).append('.');
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            char c = (char) (b & 0xFF);
+            if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_' || c == '-') {
+                name.append(c);
+            } else {
+                name.append('%').append(String.format("%02X", b & 0xFF));
+            }
+        }
+        return dataFile.resolveSibling(name.append(".idx").toString());
+    }
+
+    private void save() throws IOException {
+        Path sidecar = sidecarPath(dataFile, key);
+        Path temp = JsonStreamSupport.createSiblingTemp(sidecar);
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeLong(fileSize);
+                out.writeLong(fileModified);
+                writeString(out, key);
+                out.writeInt(entries.size());
+                for (Map.Entry<String, long[]> entry : entries.entrySet()) {
+                    writeString(out, entry.getKey());
+                    long[] packed = entry.getValue();
+                    out.writeInt(packed.length);
+                    for (long v : packed) {
+                        out.writeLong(v);
+                    }
+                }
+            }
+            JsonStreamSupport.replaceWith(temp, sidecar);
+        } finally {
+            JsonStreamSupport.deleteQuietly(temp);
+        }
+    }
+
+    /**
+     * Loads the sidecar if it exists and still matches the data file.
+     * @return Loaded index, or null if missing, unreadable or stale
+     */
+    private static JsonKeyIndex load(Path dataFile, String key) {
+        Path sidecar = sidecarPath(dataFile, key);
+        if (!Files.exists(sidecar)) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(sidecar)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                return null;
+            }
+            long size = in.readLong();
+            long modified = in.readLong();
+            if (!key.equals(readString(in))
+                    || size != Files.size(dataFile)
+                    || modified != Files.getLastModifiedTime(dataFile).toMillis()) {
+                return null;
+            }
+            int count = in.readInt();
+            Map<String, long[]> entries = new HashMap<>(Math.max(16, (int) (count / 0.75f) + 1));
+            for (int i = 0; i < count; i++) {
+                String value = readString(in);
+                long[] packed = new long[in.readInt()];
+                for (int j = 0; j < packed.length; j++) {
+                    packed[j] = in.readLong();
+                }
+                entries.put(value, packed);
+            }
+            return new JsonKeyIndex(dataFile, key, size, modified, entries);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,210 @@
+package org.json.utils.jsonUtils;
+
+import com.example.jsonutils.exceptions.JsonUtilsException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Read-only, random-access view of a JSON array file that parses records only when they are accessed.
+ * Opening does one structural scan to record the byte range of every top-level element; the file
+ * is memory-mapped and {@link #get(int)} parses just the requested record. Counting records and
+ * paging through huge files therefore costs no tree building.
+ * The view reflects the file as it was when opened and must be closed after use.
+ */
+public class JsonLazyArray implements Closeable, Iterable<JsonNode> {
+    private static final long SEGMENT_SIZE = 1L << 30;
+    private static final ObjectMapper mapper = JsonStreamSupport.mapper;
+
+    private final Path path;
+    private final FileChannel channel;
+    private final MappedByteBuffer[] segments;
+    private long[] starts = new long[1024];
+    private long[] ends = new long[1024];
+    private int size;
+
+    private JsonLazyArray(Path path) throws IOException {
+        this.path = path;
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            JsonArrayScanner.scan(path, this::addElement);
+            long length = channel.size();
+            int count = (int) ((length + SEGMENT_SIZE - 1) / SEGMENT_SIZE);
+            segments = new MappedByteBuffer[count];
+            for (int i = 0; i < count; i++) {
+                long offset = i * SEGMENT_SIZE;
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, offset, Math.min(SEGMENT_SIZE, length - offset));
+            }
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Opens a lazy view over a JSON array file.
+     * @param filePath Path to the JSON file (root should be an array)
+     * @return Lazy view; close it when done
+     * @throws JsonUtilsException if the file cannot be read or root is not an array
+     */
+    public static JsonLazyArray open(String filePath) throws JsonUtilsException {
+        try {
+            return new JsonLazyArray(Paths.get(filePath));
+        } catch (IOException e) {
+            throw new JsonUtilsException("Failed to open JSON file: " + filePath, e);
+        }
+    }
+
+    /**
+     * @return Number of records, known without parsing any of them
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Parses and returns one record.
+     * @param index Record index
+     * @return Record as JsonNode
+     * @throws JsonUtilsException if the record cannot be parsed
+     */
+    public JsonNode get(int index) throws JsonUtilsException {
+        checkIndex(index);
+        try (InputStream in = open(index)) {
+            return mapper.readTree(in);
+        } catch (IOException e) {
+            throw new JsonUtilsException("Failed to parse record " + index + " of: " + path, e);
+        }
+    }
+
+    /**
+     * Returns the raw JSON text of one record without parsing it.
+     * @param index Record index
+     * @return Record text as stored in the file
+     */
+    public String getRaw(int index) {
+        checkIndex(index);
+        ByteBuffer slice = slice(index);
+        byte[] bytes = new byte[slice.remaining()];
+        slice.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Parses a page of consecutive records.
+     * @param from Index of the first record
+     * @param count Maximum number of records
+     * @return Parsed records (fewer than count at the end of the array)
+     * @throws JsonUtilsException if a record cannot be parsed
+     */
+    public List<JsonNode> page(int from, int count) throws JsonUtilsException {
+        int to = (int) Math.min((long) from + count, size);
+        List<JsonNode> result = new ArrayList<>(Math.max(0, to - from));
+        for (int i = from; i < to; i++) {
+            result.add(get(i));
+        }
+        return result;
+    }
+
+    /**
+     * Iterates over the records, parsing each one as it is reached.
+     * Parse failures are thrown as IllegalStateException.
+     */
+    @Override
+    public Iterator<JsonNode> iterator() {
+        return new Iterator<>() {
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                return next < size;
+            }
+
+            @Override
+            public JsonNode next() {
+                if (next >= size) {
+                    throw new NoSuchElementException();
+                }
+                try {
+                    return get(next++);
+                } catch (JsonUtilsException e) {
+                    throw new IllegalStateException(e.getMessage(), e);
+                }
+            }
+        };
+    }
+
+    /**
+     * Creates a parser over one record, for token-level inspection without building a node.
+     * @param index Record index
+     * @return Parser positioned before the record's first token; the caller closes it
+     * @throws IOException if the parser cannot be created
+     */
+    JsonParser parser(int index) throws IOException {
+        checkIndex(index);
+        return mapper.getFactory().createParser(open(index));
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private InputStream open(int index) {
+        return new ByteBufferBackedInputStream(slice(index));
+    }
+
+    /**
+     * @return Buffer over the record's bytes; copied to the heap if it spans two mapped segments
+     */
+    private ByteBuffer slice(int index) {
+        long start = starts[index];
+        long end = ends[index];
+        int first = (int) (start / SEGMENT_SIZE);
+        int last = (int) ((end - 1) / SEGMENT_SIZE);
+        if (first == last) {
+            int offset = (int) (start - first * SEGMENT_SIZE);
+            return segments[first].duplicate().position(offset).limit(offset + (int) (end - start)).slice();
+        }
+        ByteBuffer copy = ByteBuffer.allocate((int) (end - start));
+        for (int s = first; s <= last; s++) {
+            long segStart = s * SEGMENT_SIZE;
+            int from = (int) (Math.max(start, segStart) - segStart);
+            int to = (int) (Math.min(end, segStart + segments[s].capacity()) - segStart);
+            copy.put(segments[s].duplicate().position(from).limit(to));
+        }
+        return copy.flip();
+    }
+
+    private void addElement(long start, long end) {
+        if (size == starts.length) {
+            starts = Arrays.copyOf(starts, size * 2);
+            ends = Arrays.copyOf(ends, size * 2);
+        }
+        starts[size] = start;
+        ends[size] = end;
+        size++;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Record index " + index + " out of range for size " + size);
+        }
+    }
+}
@@ -0,0 +1,285 @@
+package org.json.utils.jsonUtils;
+
+import com.example.jsonutils.exceptions.JsonUtilsException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Utility class for JSON Lines (NDJSON) files: one JSON record per line.
+ * Appends are plain file appends, reads stream line by line and updates/deletes
+ * rewrite the file in a single pass, so memory use does not depend on file size.
+ */
+public class JsonLinesUtils {
+    private static final ObjectMapper mapper = JsonStreamSupport.mapper;
+    private static final ObjectWriter writer = mapper.writer();
+
+    // --- Record Operations ---
+
+    /**
+     * Appends a record as a new line at the end of the file (the file is created if missing).
+     * @param filePath Path to the JSON Lines file
+     * @param newRecord JsonNode to add
+     * @throws JsonUtilsException if IO error occurs
+     */
+    public static void addRecord(String filePath, JsonNode newRecord) throws JsonUtilsException {
+        addRecords(filePath, List.of(newRecord));
+    }
+
+    /**
+     * Appends a batch of records, one per line, with a single open of the file.
+     * @param filePath Path to the JSON Lines file
+     * @param newRecords JsonNodes to add, in order
+     * @throws JsonUtilsException if IO error occurs
+     */
+    public static void addRecords(String filePath, List<? extends JsonNode> newRecords) throws JsonUtilsException {
+        Path path = Paths.get(filePath);
+        try {
+            boolean newline = JsonStreamSupport.endsWithNewline(path);
+            try (BufferedWriter out = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                if (!newline) {
+                    out.write('\n');
+                }
+                for (JsonNode record : newRecords) {
+                    out.write(writer.writeValueAsString(record));
+                    out.write('\n');
+                }
+            }
+        } catch (IOException e) {
+            throw new JsonUtilsException("Failed to append to JSON Lines file: " + filePath, e);
+        }
+    }
+
+    /**
+     * Replaces every record matching the condition, rewriting the file in one pass.
+     * @param filePath Path to the JSON Lines file
+     * @param condition Predicate to match record
+     * @param updatedRecord New record to replace
+     * @throws JsonUtilsException if no record matches or IO error occurs
+     */
+    public static void updateRecord(String filePath, Predicate<JsonNode> condition, JsonNode updatedRecord) throws JsonUtilsException {
+        if (rewrite(filePath, condition, updatedRecord) == 0) {
+            throw new JsonUtilsException("No matching record found to update.");
+        }
+    }
+
+    /**
+     * Deletes every record matching the condition, rewriting the file in one pass.
+     * @param filePath Path to the JSON Lines file
+     * @param condition Predicate to match record
+     * @throws JsonUtilsException if no record matches or IO error occurs
+     */
+    public static void deleteRecord(String filePath, Predicate<JsonNode> condition) throws JsonUtilsException {
+        if (rewrite(filePath, condition, null) == 0) {
+            throw new JsonUtilsException("No matching record found to delete.");
+        }
+    }
+
+    /**
+     * Replaces the entire content of the file with the given records.
+     * @param filePath Path to the JSON Lines file
+     * @param newRecords Records to write, one per line
+     * @throws JsonUtilsException if IO error occurs
+     */
+    public static void replaceContent(String filePath, List<? extends JsonNode> newRecords) throws JsonUtilsException {
+        Path target = Paths.get(filePath);
+        Path temp = null;
+        try {
+            temp = JsonStreamSupport.createSiblingTemp(target);
+            try (BufferedWriter out = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                for (JsonNode record : newRecords) {
+                    out.write(writer.writeValueAsString(record));
+                    out.write('\n');
+                }
+            }
+            JsonStreamSupport.replaceWith(temp, target);
+        } catch (IOException e) {
+            JsonStreamSupport.deleteQuietly(temp);
+            throw new JsonUtilsException("Failed to write JSON Lines file: " + filePath, e);
+        }
+    }
+
+    // --- Query Operations ---
+
+    /**
+     * Searches records by key and value.
+     * @param filePath Path to the JSON Lines file
+     * @param key Key to search
+     * @param value Value to match
+     * @return List of matching JsonNodes
+     * @throws JsonUtilsException if IO or parse error occurs
+     */
+    public static List<JsonNode> searchByKeyValue(String filePath, String key, String value) throws JsonUtilsException {
+        return streamMatches(filePath, new String[]{key}, value, false);
+    }
+
+    /**
+     * Searches records using nested paths (e.g., "user.address.city").
+     * @param filePath Path to the JSON Lines file
+     * @param path Dot-separated path
+     * @param value Value to match
+     * @return List of matching JsonNodes
+     * @throws JsonUtilsException if IO or parse error occurs
+     */
+    public static List<JsonNode> searchByNestedPath(String filePath, String path, String value) throws JsonUtilsException {
+        return searchByNestedPath(filePath, CompiledJsonPath.compile(path), value);
+    }
+
+    /**
+     * Searches records using a precompiled path.
+     * @param filePath Path to the JSON Lines file
+     * @param path Compiled path
+     * @param value Value to match
+     * @return List of matching JsonNodes
+     * @throws JsonUtilsException if IO or parse error occurs
+     */
+    public static List<JsonNode> searchByNestedPath(String filePath, CompiledJsonPath path, String value) throws JsonUtilsException {
+        String[] fields = path.fieldNames();
+        if (fields != null) {
+            return streamMatches(filePath, fields, value, false);
+        }
+        return filterRecords(filePath, node -> path.matches(node, value));
+    }
+
+    /**
+     * Gets the first record matching key and value, stopping at the first match.
+     * @param filePath Path to the JSON Lines file
+     * @param key Key to search
+     * @param value Value to match
+     * @return First matching JsonNode or null
+     * @throws JsonUtilsException if IO or parse error occurs
+     */
+    public static JsonNode getRecordByKey(String filePath, String key, String value) throws JsonUtilsException {
+        List<JsonNode> result = streamMatches(filePath, new String[]{key}, value, true);
+        return result.isEmpty() ? null : result.get(0);
+    }
+
+    /**
+     * Filters records based on a condition.
+     * @param filePath Path to the JSON Lines file
+     * @param condition Predicate to match
+     * @return List of matching JsonNodes
+     * @throws JsonUtilsException if IO or parse error occurs
+     */
+    public static List<JsonNode> filterRecords(String filePath, Predicate<JsonNode> condition) throws JsonUtilsException {
+        List<JsonNode> result = new ArrayList<>();
+        try (BufferedReader in = Files.newBufferedReader(Paths.get(filePath), StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                JsonNode node = mapper.readTree(line);
+                if (condition.test(node)) {
+                    result.add(node);
+                }
+            }
+        } catch (IOException e) {
+            throw new JsonUtilsException("Failed to query JSON Lines file: " + filePath, e);
+        }
+        return result;
+    }
+
+    /**
+     * Counts records without parsing them.
+     * @param filePath Path to the JSON Lines file
+     * @return Number of non-blank lines
+     * @throws JsonUtilsException if IO error occurs
+     */
+    public static long countRecords(String filePath) throws JsonUtilsException {
+        long count = 0;
+        try (BufferedReader in = Files.newBufferedReader(Paths.get(filePath), StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (!line.isBlank()) {
+                    count++;
+                }
+            }
+        } catch (IOException e) {
+            throw new JsonUtilsException("Failed to read JSON Lines file: " + filePath, e);
+        }
+        return count;
+    }
+
+    private static List<JsonNode> streamMatches(String filePath, String[] keys, String value, boolean firstOnly) throws JsonUtilsException {
+        List<JsonNode> result = new ArrayList<>();
+        try (BufferedReader in = Files.newBufferedReader(Paths.get(filePath), StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                String found;
+                try (JsonParser parser = mapper.getFactory().createParser(line)) {
+                    parser.nextToken();
+                    found = JsonStreamSupport.textAtPath(parser, keys);
+                }
+                if (value.equals(found)) {
+                    result.add(mapper.readTree(line));
+                    if (firstOnly) {
+                        break;
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new JsonUtilsException("Failed to query JSON Lines file: " + filePath, e);
+        }
+        return result;
+    }
+
+    /**
+     * Copies the file line by line into a temporary sibling, replacing or dropping matching records,
+     * then moves it over the original. Unmatched lines are copied verbatim.
+     * @param replacement Record to write for each match, or null to delete matches
+     * @return Number of matched records
+     */
+    private static int rewrite(String filePath, Predicate<JsonNode> condition, JsonNode replacement) throws JsonUtilsException {
+        Path target = Paths.get(filePath);
+        Path temp = null;
+        int matched = 0;
+        try {
+            temp = JsonStreamSupport.createSiblingTemp(target);
+            String replacementLine = replacement == null ? null : writer.writeValueAsString(replacement);
+            try (BufferedReader in = Files.newBufferedReader(target, StandardCharsets.UTF_8);
+                 BufferedWriter out = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = in.readLine()) != null) {
+                    if (line.isBlank()) {
+                        continue;
+                    }
+                    if (condition.test(mapper.readTree(line))) {
+                        matched++;
+                        if (replacementLine == null) {
+                            continue;
+                        }
+                        line = replacementLine;
+                    }
+                    out.write(line);
+                    out.write('\n');
+                }
+            }
+            if (matched > 0) {
+                JsonStreamSupport.replaceWith(temp, target);
+            } else {
+                JsonStreamSupport.deleteQuietly(temp);
+            }
+            return matched;
+        } catch (IOException e) {
+            JsonStreamSupport.deleteQuietly(temp);
+            throw new JsonUtilsException("Failed to rewrite JSON Lines file: " + filePath, e);
+        }
+    }
+}
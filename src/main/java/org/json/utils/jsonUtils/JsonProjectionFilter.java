@@ -0,0 +1,138 @@
+package org.json.utils.jsonUtils;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.filter.FilteringParserDelegate;
+import com.fasterxml.jackson.core.filter.TokenFilter;
+import com.fasterxml.jackson.core.util.JsonParserDelegate;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Token filter that keeps only the given paths of each record, so that excluded subtrees are
+ * skipped by the parser and never become nodes.
+ * Paths use the {@link CompiledJsonPath} syntax and are relative to each record: when the root is
+ * an array they apply to every element, otherwise to the root object itself. Records with none of
+ * the paths are kept as empty objects so record positions are preserved, and a scalar found where a
+ * path expects an object or array is kept as is.
+ */
+final class JsonProjectionFilter extends TokenFilter {
+    private static final ObjectMapper mapper = JsonStreamSupport.mapper;
+    private final Map<String, JsonProjectionFilter> children = new HashMap<>();
+    private JsonProjectionFilter wildcard;
+    private boolean leaf;
+    private final boolean record;
+
+    private JsonProjectionFilter(boolean record) {
+        this.record = record;
+    }
+
+    /**
+     * Reads the record at the parser's current token, materializing only the kept paths.
+     * The record is read through a {@link FilteringParserDelegate}, so excluded subtrees are
+     * skipped at token level. On return the parser is positioned on the record's last token.
+     * Filtering one record at a time lets callers such as
+     * {@link JsonQueryUtils#filterRecords(String, Collection, java.util.function.Predicate)} test and
+     * drop each record before the next is read; one filter over the whole array would build every
+     * projected record first.
+     * @param parser Parser positioned at the first token of a record
+     * @return Projected record; non-object records are returned whole
+     * @throws IOException on parse error
+     */
+    JsonNode readRecord(JsonParser parser) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            return mapper.readTree(parser);
+        }
+        JsonParser filtered = new FilteringParserDelegate(new CurrentTokenReplay(parser), this,
+                TokenFilter.Inclusion.INCLUDE_ALL_AND_PATH, true);
+        return mapper.readTree(filtered);
+    }
+
+    /**
+     * Compiles paths into a filter tree.
+     * @param paths Paths to keep, relative to each record
+     * @return Filter for a record
+     */
+    static JsonProjectionFilter compile(Collection<String> paths) {
+        JsonProjectionFilter root = new JsonProjectionFilter(true);
+        for (String path : paths) {
+            JsonProjectionFilter node = root;
+            for (String segment : CompiledJsonPath.compile(path).segments()) {
+                if (node.leaf) {
+                    break;
+                }
+                if ("*".equals(segment)) {
+                    if (node.wildcard == null) {
+                        node.wildcard = new JsonProjectionFilter(false);
+                    }
+                    node = node.wildcard;
+                } else {
+                    node = node.children.computeIfAbsent(segment, s -> new JsonProjectionFilter(false));
+                }
+            }
+            // a kept path includes everything below it
+            node.leaf = true;
+            node.children.clear();
+            node.wildcard = null;
+        }
+        return root;
+    }
+
+    private TokenFilter descend(JsonProjectionFilter child) {
+        if (child == null) {
+            return null;
+        }
+        return child.leaf ? TokenFilter.INCLUDE_ALL : child;
+    }
+
+    @Override
+    public TokenFilter includeProperty(String name) {
+        JsonProjectionFilter child = children.get(name);
+        return descend(child != null ? child : wildcard);
+    }
+
+    @Override
+    public TokenFilter includeElement(int index) {
+        JsonProjectionFilter child = children.get(String.valueOf(index));
+        if (child == null) {
+            child = wildcard;
+        }
+        // arrays without an index segment are transparent: elements keep the current position
+        return child != null ? descend(child) : this;
+    }
+
+    @Override
+    protected boolean _includeScalar() {
+        // a scalar (or null) where the path expects an object is kept, so callers can tell it apart from a missing path
+        return true;
+    }
+
+    @Override
+    public boolean includeEmptyObject(boolean contentsFiltered) {
+        return record;
+    }
+
+    /**
+     * Lets a filtering parser start at a token the underlying parser has already returned.
+     */
+    private static final class CurrentTokenReplay extends JsonParserDelegate {
+        private boolean replayed;
+
+        CurrentTokenReplay(JsonParser parser) {
+            super(parser);
+        }
+
+        @Override
+        public JsonToken nextToken() throws IOException {
+            if (!replayed) {
+                replayed = true;
+                return delegate.currentToken();
+            }
+            return delegate.nextToken();
+        }
+    }
+}
@@ -1,15 +1,27 @@
 package org.json.utils.jsonUtils;
 
+import com.example.jsonutils.exceptions.JsonUtilsException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 import java.util.function.Predicate;
 
 /**
  * Utility class for querying and searching JSON data.
  */
 public class JsonQueryUtils {
+    private static final ObjectMapper mapper = JsonStreamSupport.mapper;
+    /** Default array size below which parallel filtering runs sequentially. */
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 2048;
 
     /**
      * Searches records by key and value in a JSON array.
@@ -38,20 +50,21 @@ public class JsonQueryUtils {
      * @return List of matching JsonNodes
      */
     public static List<JsonNode> searchByNestedPath(JsonNode root, String path, String value) {
+        return searchByNestedPath(root, CompiledJsonPath.compile(path), value);
+    }
+
+    /**
+     * Searches using a precompiled path, avoiding per-call path parsing.
+     * @param root Root JsonNode (should be ArrayNode)
+     * @param path Compiled path (supports array indices and "*" wildcards)
+     * @param value Value to match
+     * @return List of matching JsonNodes
+     */
+    public static List<JsonNode> searchByNestedPath(JsonNode root, CompiledJsonPath path, String value) {
         List<JsonNode> result = new ArrayList<>();
-        String[] keys = path.split("\\.");
         if (root.isArray()) {
             for (JsonNode node : root) {
-                JsonNode current = node;
-                for (String key : keys) {
-                    if (current.has(key)) {
-                        current = current.get(key);
-                    } else {
-                        current = null;
-                        break;
-                    }
-                }
-                if (current != null && value.equals(current.asText())) {
+                if (path.matches(node, value)) {
                     result.add(node);
                 }
             }
@@ -95,6 +108,33 @@ public class JsonQueryUtils {
         return result;
     }
 
+    /**
+     * Filters records in parallel on the common fork/join pool, keeping input order.
+     * @param root Root JsonNode (should be ArrayNode)
+     * @param condition Thread-safe predicate to match
+     * @return List of matching JsonNodes in array order
+     */
+    public static List<JsonNode> filterRecordsParallel(JsonNode root, Predicate<JsonNode> condition) {
+        return filterRecordsParallel(root, condition, DEFAULT_PARALLEL_THRESHOLD, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Filters records in parallel by splitting the array index range into fork/join tasks.
+     * Results keep input order. Arrays smaller than the threshold are filtered sequentially.
+     * @param root Root JsonNode (should be ArrayNode)
+     * @param condition Thread-safe predicate to match
+     * @param threshold Minimum array size for parallel execution
+     * @param pool Pool to run the tasks on
+     * @return List of matching JsonNodes in array order
+     */
+    public static List<JsonNode> filterRecordsParallel(JsonNode root, Predicate<JsonNode> condition, int threshold, ForkJoinPool pool) {
+        if (!root.isArray() || root.size() < Math.max(2, threshold)) {
+            return filterRecords(root, condition);
+        }
+        int leafSize = Math.max(1, root.size() / (pool.getParallelism() * 4));
+        return pool.invoke(new FilterTask(root, condition, 0, root.size(), leafSize));
+    }
+
     /**
      * Checks if a key exists in the JSON (at any level in array elements).
      * @param root Root JsonNode (should be ArrayNode)
@@ -120,4 +160,300 @@ public class JsonQueryUtils {
     public static int countRecords(JsonNode root) {
         return root.isArray() ? root.size() : 0;
     }
+
+    // --- Streaming file queries ---
+
+    /**
+     * Searches records by key and value directly in a JSON array file.
+     * Elements are streamed one at a time and only matching records are built as JsonNodes.
+     * @param filePath Path to the JSON file (root should be an array)
+     * @param key Key to search
+     * @param value Value to match
+     * @return List of matching JsonNodes
+     * @throws JsonUtilsException if the file cannot be read or root is not an array
+     */
+    public static List<JsonNode> searchByKeyValue(String filePath, String key, String value) throws JsonUtilsException {
+        return streamMatches(filePath, new String[]{key}, value, false);
+    }
+
+    /**
+     * Searches a JSON array file using nested paths (e.g., "user.address.city") without building the tree.
+     * @param filePath Path to the JSON file (root should be an array)
+     * @param path Dot-separated path
+     * @param value Value to match
+     * @return List of matching JsonNodes
+     * @throws JsonUtilsException if the file cannot be read or root is not an array
+     */
+    public static List<JsonNode> searchByNestedPath(String filePath, String path, String value) throws JsonUtilsException {
+        return searchByNestedPath(filePath, CompiledJsonPath.compile(path), value);
+    }
+
+    /**
+     * Searches a JSON array file using a precompiled path.
+     * Plain field paths are matched at token level; paths with indices or wildcards
+     * build each record (one at a time) before evaluating.
+     * @param filePath Path to the JSON file (root should be an array)
+     * @param path Compiled path
+     * @param value Value to match
+     * @return List of matching JsonNodes
+     * @throws JsonUtilsException if the file cannot be read or root is not an array
+     */
+    public static List<JsonNode> searchByNestedPath(String filePath, CompiledJsonPath path, String value) throws JsonUtilsException {
+        String[] fields = path.fieldNames();
+        if (fields != null) {
+            return streamMatches(filePath, fields, value, false);
+        }
+        return filterRecords(filePath, node -> path.matches(node, value));
+    }
+
+    /**
+     * Gets the first record matching key and value from a JSON array file, stopping at the first match.
+     * @param filePath Path to the JSON file (root should be an array)
+     * @param key Key to search
+     * @param value Value to match
+     * @return First matching JsonNode or null
+     * @throws JsonUtilsException if the file cannot be read or root is not an array
+     */
+    public static JsonNode getRecordByKey(String filePath, String key, String value) throws JsonUtilsException {
+        List<JsonNode> result = streamMatches(filePath, new String[]{key}, value, true);
+        return result.isEmpty() ? null : result.get(0);
+    }
+
+    /**
+     * Filters records of a JSON array file based on a condition.
+     * Only one record is held in memory at a time besides the matches.
+     * @param filePath Path to the JSON file (root should be an array)
+     * @param condition Predicate to match
+     * @return List of matching JsonNodes
+     * @throws JsonUtilsException if the file cannot be read or root is not an array
+     */
+    public static List<JsonNode> filterRecords(String filePath, Predicate<JsonNode> condition) throws JsonUtilsException {
+        List<JsonNode> result = new ArrayList<>();
+        try (JsonParser parser = JsonStreamSupport.openArray(filePath)) {
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                JsonNode node = mapper.readTree(parser);
+                if (node != null && condition.test(node)) {
+                    result.add(node);
+                }
+            }
+        } catch (IOException e) {
+            throw new JsonUtilsException("Failed to query JSON file: " + filePath, e);
+        }
+        return result;
+    }
+
+    /**
+     * Gets a record by key and value through a persistent index on the key.
+     * The index sidecar is built on first use and rebuilt whenever the file changes;
+     * lookups seek straight to the record and parse only that record.
+     * @param filePath Path to the JSON file (root should be an array)
+     * @param key Top-level key to index and search
+     * @param value Value to match
+     * @return First matching JsonNode or null
+     * @throws JsonUtilsException if the file cannot be read or indexed
+     */
+    public static JsonNode getRecordByKeyIndexed(String filePath, String key, String value) throws JsonUtilsException {
+        return JsonKeyIndex.forFile(filePath, key).get(value);
+    }
+
+    /**
+     * Searches records by key and value through a persistent index on the key.
+     * @param filePath Path to the JSON file (root should be an array)
+     * @param key Top-level key to index and search
+     * @param value Value to match
+     * @return List of matching JsonNodes in file order
+     * @throws JsonUtilsException if the file cannot be read or indexed
+     */
+    public static List<JsonNode> searchByKeyValueIndexed(String filePath, String key, String value) throws JsonUtilsException {
+        return JsonKeyIndex.forFile(filePath, key).getAll(value);
+    }
+
+    /**
+     * Counts records of a JSON array file by skipping over each element at token level.
+     * @param filePath Path to the JSON file (root should be an array)
+     * @return Number of records
+     * @throws JsonUtilsException if the file cannot be read or root is not an array
+     */
+    public static long countRecords(String filePath) throws JsonUtilsException {
+        long count = 0;
+        try (JsonParser parser = JsonStreamSupport.openArray(filePath)) {
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                parser.skipChildren();
+                count++;
+            }
+        } catch (IOException e) {
+            throw new JsonUtilsException("Failed to query JSON file: " + filePath, e);
+        }
+        return count;
+    }
+
+    /**
+     * Filters records of a JSON array file, materializing only the given paths of each record.
+     * The predicate sees the projected record, so it must only rely on kept paths.
+     * @param filePath Path to the JSON file (root should be an array)
+     * @param paths Paths to keep, relative to each record
+     * @param condition Predicate to match
+     * @return List of matching projected JsonNodes
+     * @throws JsonUtilsException if the file cannot be read or root is not an array
+     */
+    public static List<JsonNode> filterRecords(String filePath, Collection<String> paths, Predicate<JsonNode> condition) throws JsonUtilsException {
+        JsonProjectionFilter projection = JsonProjectionFilter.compile(paths);
+        List<JsonNode> result = new ArrayList<>();
+        try (JsonParser parser = JsonStreamSupport.openArray(filePath)) {
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                JsonNode node = projection.readRecord(parser);
+                if (node != null && condition.test(node)) {
+                    result.add(node);
+                }
+            }
+        } catch (IOException e) {
+            throw new JsonUtilsException("Failed to query JSON file: " + filePath, e);
+        }
+        return result;
+    }
+
+    /**
+     * Searches records of a lazy view by key and value.
+     * Each record is matched at token level over its mapped bytes; only matches are parsed.
+     * @param records Lazy view of a JSON array file
+     * @param key Key to search
+     * @param value Value to match
+     * @return List of matching JsonNodes
+     * @throws JsonUtilsException if a record cannot be read
+     */
+    public static List<JsonNode> searchByKeyValue(JsonLazyArray records, String key, String value) throws JsonUtilsException {
+        return lazyMatches(records, new String[]{key}, value, false);
+    }
+
+    /**
+     * Gets the first record of a lazy view matching key and value, stopping at the first match.
+     * @param records Lazy view of a JSON array file
+     * @param key Key to search
+     * @param value Value to match
+     * @return First matching JsonNode or null
+     * @throws JsonUtilsException if a record cannot be read
+     */
+    public static JsonNode getRecordByKey(JsonLazyArray records, String key, String value) throws JsonUtilsException {
+        List<JsonNode> result = lazyMatches(records, new String[]{key}, value, true);
+        return result.isEmpty() ? null : result.get(0);
+    }
+
+    /**
+     * Filters records of a lazy view based on a condition, parsing one record at a time.
+     * @param records Lazy view of a JSON array file
+     * @param condition Predicate to match
+     * @return List of matching JsonNodes
+     * @throws JsonUtilsException if a record cannot be parsed
+     */
+    public static List<JsonNode> filterRecords(JsonLazyArray records, Predicate<JsonNode> condition) throws JsonUtilsException {
+        List<JsonNode> result = new ArrayList<>();
+        for (int i = 0; i < records.size(); i++) {
+            JsonNode node = records.get(i);
+            if (condition.test(node)) {
+                result.add(node);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Counts records of a lazy view; the count is known from the structural scan.
+     * @param records Lazy view of a JSON array file
+     * @return Number of records
+     */
+    public static int countRecords(JsonLazyArray records) {
+        return records.size();
+    }
+
+    private static List<JsonNode> lazyMatches(JsonLazyArray records, String[] keys, String value, boolean firstOnly) throws JsonUtilsException {
+        List<JsonNode> result = new ArrayList<>();
+        for (int i = 0; i < records.size(); i++) {
+            boolean matched;
+            try (JsonParser parser = records.parser(i)) {
+                matched = parser.nextToken() == JsonToken.START_OBJECT
+                        && value.equals(JsonStreamSupport.textAtPath(parser, keys));
+            } catch (IOException e) {
+                throw new JsonUtilsException("Failed to query record " + i, e);
+            }
+            if (matched) {
+                result.add(records.get(i));
+                if (firstOnly) {
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+
+    private static List<JsonNode> streamMatches(String filePath, String[] keys, String value, boolean firstOnly) throws JsonUtilsException {
+        List<JsonNode> result = new ArrayList<>();
+        try (JsonParser parser = JsonStreamSupport.openArray(filePath)) {
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                if (parser.currentToken() != JsonToken.START_OBJECT) {
+                    parser.skipChildren();
+                    continue;
+                }
+                TokenBuffer buffer = new TokenBuffer(parser);
+                buffer.copyCurrentStructure(parser);
+                boolean matched;
+                try (JsonParser recordParser = buffer.asParser()) {
+                    recordParser.nextToken();
+                    matched = value.equals(JsonStreamSupport.textAtPath(recordParser, keys));
+                }
+                if (matched) {
+                    try (JsonParser recordParser = buffer.asParser(mapper)) {
+                        result.add(mapper.readTree(recordParser));
+                    }
+                    if (firstOnly) {
+                        break;
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new JsonUtilsException("Failed to query JSON file: " + filePath, e);
+        }
+        return result;
+    }
+
+    /**
+     * Filters an index range of an array, splitting in halves until the range is small enough.
+     */
+    private static class FilterTask extends RecursiveTask<List<JsonNode>> {
+        private static final long serialVersionUID = 1L;
+
+        private final JsonNode array;
+        private final Predicate<JsonNode> condition;
+        private final int from;
+        private final int to;
+        private final int leafSize;
+
+        FilterTask(JsonNode array, Predicate<JsonNode> condition, int from, int to, int leafSize) {
+            this.array = array;
+            this.condition = condition;
+            this.from = from;
+            this.to = to;
+            this.leafSize = leafSize;
+        }
+
+        @Override
+        protected List<JsonNode> compute() {
+            if (to - from <= leafSize) {
+                List<JsonNode> result = new ArrayList<>();
+                for (int i = from; i < to; i++) {
+                    JsonNode node = array.get(i);
+                    if (condition.test(node)) {
+                        result.add(node);
+                    }
+                }
+                return result;
+            }
+            int mid = (from + to) >>> 1;
+            FilterTask left = new FilterTask(array, condition, from, mid, leafSize);
+            left.fork();
+            List<JsonNode> right = new FilterTask(array, condition, mid, to, leafSize).compute();
+            List<JsonNode> result = left.join();
+            result.addAll(right);
+            return result;
+        }
+    }
 }
@@ -0,0 +1,196 @@
+package org.json.utils.jsonUtils;
+
+import com.example.jsonutils.exceptions.JsonUtilsException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Shared helpers for token-level streaming over JSON array files.
+ */
+final class JsonStreamSupport {
+    static final ObjectMapper mapper = new ObjectMapper();
+
+    private JsonStreamSupport() {
+    }
+
+    /**
+     * Opens a parser on a JSON file and positions it on the root START_ARRAY token.
+     * @param filePath Path to the JSON file
+     * @return Parser positioned at the start of the root array
+     * @throws JsonUtilsException if the file cannot be read or root is not an array
+     */
+    static JsonParser openArray(String filePath) throws JsonUtilsException {
+        JsonParser parser = null;
+        try {
+            parser = mapper.getFactory().createParser(new File(filePath));
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                closeQuietly(parser);
+                throw new JsonUtilsException("Root is not a JSON array: " + filePath);
+            }
+            return parser;
+        } catch (IOException e) {
+            closeQuietly(parser);
+            throw new JsonUtilsException("Failed to parse JSON from file: " + filePath, e);
+        }
+    }
+
+    /**
+     * Walks a dot-path from the current START_OBJECT token and returns the text of the value found.
+     * Non-matching fields are skipped at token level. The parser is left somewhere inside the record,
+     * so callers must only use it on a parser dedicated to that record.
+     * @param parser Parser positioned at the START_OBJECT of a record
+     * @param keys Path segments
+     * @return Text of the value (same as JsonNode.asText()), or null if the path is absent
+     * @throws IOException on parse error
+     */
+    static String textAtPath(JsonParser parser, String[] keys) throws IOException {
+        for (String key : keys) {
+            if (parser.currentToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            boolean found = false;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.currentName();
+                parser.nextToken();
+                if (key.equals(name)) {
+                    found = true;
+                    break;
+                }
+                parser.skipChildren();
+            }
+            if (!found) {
+                return null;
+            }
+        }
+        return scalarText(parser);
+    }
+
+    /**
+     * Advances the parser until it is back at the given nesting depth, skipping any containers on the way.
+     * Used after a partial walk into a record to land on the record's closing token.
+     * @param parser Parser somewhere inside a record
+     * @param depth Nesting depth of the context that holds the record (the root array)
+     * @throws IOException on parse error
+     */
+    static void skipToDepth(JsonParser parser, int depth) throws IOException {
+        while (parser.getParsingContext().getNestingDepth() > depth) {
+            JsonToken token = parser.nextToken();
+            if (token == null) {
+                throw new IOException("Unexpected end of JSON input");
+            }
+            if (token == JsonToken.START_OBJECT || token == JsonToken.START_ARRAY) {
+                parser.skipChildren();
+            }
+        }
+    }
+
+    /**
+     * Returns the text of the current value token with the same rules as JsonNode.asText().
+     * Containers are skipped and yield an empty string.
+     * @param parser Parser positioned at a value token
+     * @return Text of the value
+     * @throws IOException on parse error
+     */
+    static String scalarText(JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == null) {
+            return null;
+        }
+        switch (token) {
+            case VALUE_STRING:
+                return parser.getText();
+            case VALUE_NUMBER_INT:
+                return parser.getNumberValue().toString();
+            case VALUE_NUMBER_FLOAT:
+                return String.valueOf(parser.getDoubleValue());
+            case VALUE_TRUE:
+                return "true";
+            case VALUE_FALSE:
+                return "false";
+            case VALUE_NULL:
+                return "null";
+            case START_OBJECT:
+            case START_ARRAY:
+                parser.skipChildren();
+                return "";
+            default:
+                return parser.getText();
+        }
+    }
+
+    /**
+     * Creates an empty temporary file next to the target so it can later be moved over it atomically.
+     * @param target File that will be replaced
+     * @return Path of the temporary file
+     * @throws IOException if the file cannot be created
+     */
+    static Path createSiblingTemp(Path target) throws IOException {
+        Path dir = target.toAbsolutePath().getParent();
+        return Files.createTempFile(dir, target.getFileName().toString(), ".tmp");
+    }
+
+    /**
+     * Moves a fully written temporary file over the target, atomically where the file system allows it.
+     * @param temp Temporary file created by {@link #createSiblingTemp(Path)}
+     * @param target File to replace
+     * @throws IOException if the move fails
+     */
+    static void replaceWith(Path temp, Path target) throws IOException {
+        try {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Checks whether appended content would start on a fresh line.
+     * @param path File to check
+     * @return true if the file is missing, empty or ends with '\n'
+     * @throws IOException if the file cannot be read
+     */
+    static boolean endsWithNewline(Path path) throws IOException {
+        if (!Files.exists(path)) {
+            return true;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size == 0) {
+                return true;
+            }
+            ByteBuffer last = ByteBuffer.allocate(1);
+            channel.read(last, size - 1);
+            return last.get(0) == '\n';
+        }
+    }
+
+    static void deleteQuietly(Path path) {
+        if (path != null) {
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException ignored) {
+                // best effort cleanup of a temporary file
+            }
+        }
+    }
+
+    static void closeQuietly(JsonParser parser) {
+        if (parser != null) {
+            try {
+                parser.close();
+            } catch (IOException ignored) {
+                // nothing useful to do
+            }
+        }
+    }
+}
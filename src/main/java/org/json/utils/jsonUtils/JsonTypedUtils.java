@@ -0,0 +1,238 @@
+package org.json.utils.jsonUtils;
+
+import com.example.jsonutils.exceptions.JsonUtilsException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Utility class for reading and writing JSON files directly as typed objects.
+ * Records are bound straight to the target class without an intermediate JsonNode tree.
+ * Readers and writers are built once per class and reused; they are immutable and thread-safe.
+ * Reads accept either a root JSON array or a root-level sequence such as JSON Lines.
+ */
+public class JsonTypedUtils {
+    private static final ObjectMapper mapper = JsonStreamSupport.mapper;
+    private static final Map<Class<?>, ObjectReader> readers = new ConcurrentHashMap<>();
+    private static final Map<Class<?>, ObjectWriter> prettyWriters = new ConcurrentHashMap<>();
+    private static final Map<Class<?>, ObjectWriter> lineWriters = new ConcurrentHashMap<>();
+
+    // --- Reads ---
+
+    /**
+     * Opens an iterator that binds one record at a time.
+     * Binding failures while iterating are thrown as RuntimeJsonMappingException.
+     * @param filePath Path to the JSON or JSON Lines file
+     * @param type Record class
+     * @return Iterator over the records; close it when done
+     * @throws JsonUtilsException if the file cannot be opened
+     */
+    public static <T> MappingIterator<T> readValues(String filePath, Class<T> type) throws JsonUtilsException {
+        try {
+            return readerFor(type).readValues(new File(filePath));
+        } catch (IOException e) {
+            throw new JsonUtilsException("Failed to read JSON file: " + filePath, e);
+        }
+    }
+
+    /**
+     * Streams records bound to the given class. The stream holds the file open until it is closed.
+     * @param filePath Path to the JSON or JSON Lines file
+     * @param type Record class
+     * @return Sequential stream of records; use with try-with-resources
+     * @throws JsonUtilsException if the file cannot be opened
+     */
+    public static <T> Stream<T> stream(String filePath, Class<T> type) throws JsonUtilsException {
+        MappingIterator<T> iterator = readValues(filePath, type);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED), false)
+                .onClose(() -> {
+                    try {
+                        iterator.close();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+    }
+
+    /**
+     * Reads all records bound to the given class.
+     * @param filePath Path to the JSON or JSON Lines file
+     * @param type Record class
+     * @return List of records in file order
+     * @throws JsonUtilsException if reading or binding fails
+     */
+    public static <T> List<T> readAll(String filePath, Class<T> type) throws JsonUtilsException {
+        try (MappingIterator<T> iterator = readValues(filePath, type)) {
+            return iterator.readAll();
+        } catch (IOException | RuntimeException e) {
+            throw new JsonUtilsException("Failed to read JSON file: " + filePath, e);
+        }
+    }
+
+    /**
+     * Reads a whole JSON document bound to the given class.
+     * @param filePath Path to the JSON file
+     * @param type Target class
+     * @return Bound object
+     * @throws JsonUtilsException if reading or binding fails
+     */
+    public static <T> T readValue(String filePath, Class<T> type) throws JsonUtilsException {
+        try {
+            return readerFor(type).readValue(new File(filePath));
+        } catch (IOException e) {
+            throw new JsonUtilsException("Failed to read JSON file: " + filePath, e);
+        }
+    }
+
+    // --- Writes ---
+
+    /**
+     * Writes records as a pretty printed JSON array (overwrites if exists).
+     * @param filePath Path to the file
+     * @param type Record class
+     * @param records Records to write, in order
+     * @throws JsonUtilsException if serialization fails
+     */
+    public static <T> void writeAll(String filePath, Class<T> type, Iterable<? extends T> records) throws JsonUtilsException {
+        try (SequenceWriter out = openArrayWriter(filePath, type)) {
+            out.writeAll(records);
+        } catch (IOException e) {
+            throw new JsonUtilsException("Failed to write JSON file: " + filePath, e);
+        }
+    }
+
+    /**
+     * Opens a writer that streams records into a new pretty printed JSON array (overwrites if exists).
+     * The array is closed when the writer is closed.
+     * @param filePath Path to the file
+     * @param type Record class
+     * @return Sequence writer; close it when done
+     * @throws JsonUtilsException if the file cannot be opened
+     */
+    public static <T> SequenceWriter openArrayWriter(String filePath, Class<T> type) throws JsonUtilsException {
+        try {
+            return prettyWriterFor(type).writeValuesAsArray(new File(filePath));
+        } catch (IOException e) {
+            throw new JsonUtilsException("Failed to open JSON file for writing: " + filePath, e);
+        }
+    }
+
+    /**
+     * Opens a writer that appends records to a JSON Lines file, one per line (the file is created if missing).
+     * @param filePath Path to the JSON Lines file
+     * @param type Record class
+     * @return Sequence writer; close it when done
+     * @throws JsonUtilsException if the file cannot be opened
+     */
+    public static <T> SequenceWriter openLinesWriter(String filePath, Class<T> type) throws JsonUtilsException {
+        try {
+            boolean newline = JsonStreamSupport.endsWithNewline(Paths.get(filePath));
+            OutputStream out = new LineTerminatingOutputStream(
+                    new BufferedOutputStream(new FileOutputStream(filePath, true)));
+            if (!newline) {
+                out.write('\n');
+            }
+            return lineWriterFor(type).writeValues(out);
+        } catch (IOException e) {
+            throw new JsonUtilsException("Failed to open JSON Lines file for writing: " + filePath, e);
+        }
+    }
+
+    /**
+     * Appends typed records to the root array of a JSON file without rewriting existing records.
+     * @param filePath Path to the file
+     * @param records Records to append, in order
+     * @throws JsonUtilsException if the root is not an array or IO error occurs
+     */
+    public static void appendRecords(String filePath, List<?> records) throws JsonUtilsException {
+        appendRecords(filePath, records, JsonWriteOptions.PRETTY);
+    }
+
+    /**
+     * Appends typed records to the root array of a JSON file in place, with the given write options.
+     * @param filePath Path to the file
+     * @param records Records to append, in order
+     * @param options Output format, buffering and fsync settings
+     * @throws JsonUtilsException if the root is not an array or IO error occurs
+     */
+    public static void appendRecords(String filePath, List<?> records, JsonWriteOptions options) throws JsonUtilsException {
+        try {
+            JsonArrayAppender.append(Paths.get(filePath), records, options);
+        } catch (IOException e) {
+            throw new JsonUtilsException("Failed to append to JSON file: " + filePath, e);
+        }
+    }
+
+    // --- Cached readers and writers ---
+
+    /**
+     * @param type Record class
+     * @return Shared reader bound to the class
+     */
+    public static ObjectReader readerFor(Class<?> type) {
+        return readers.computeIfAbsent(type, mapper::readerFor);
+    }
+
+    /**
+     * @param type Record class
+     * @return Shared pretty printing writer for the class
+     */
+    public static ObjectWriter prettyWriterFor(Class<?> type) {
+        return prettyWriters.computeIfAbsent(type, t -> mapper.writerFor(t).withDefaultPrettyPrinter());
+    }
+
+    private static ObjectWriter lineWriterFor(Class<?> type) {
+        return lineWriters.computeIfAbsent(type, t -> mapper.writerFor(t).withRootValueSeparator("\n"));
+    }
+
+    /**
+     * Terminates the last written line on close, so later appends start on a fresh line.
+     */
+    private static final class LineTerminatingOutputStream extends FilterOutputStream {
+        private int last = '\n';
+
+        LineTerminatingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            last = b;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (len > 0) {
+                out.write(b, off, len);
+                last = b[off + len - 1];
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (last != '\n') {
+                out.write('\n');
+                last = '\n';
+            }
+            super.close();
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package org.json.utils.jsonUtils;
+
+import com.example.jsonutils.exceptions.JsonUtilsException;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Merges a delta of records into a JSON array file by key in a single streaming pass.
+ * The delta is loaded into a hash map keyed by the text of each record's key path. Every
+ * record of the file whose key is in the delta is replaced; all others are copied through
+ * unchanged. Delta records whose key never appeared are appended at the end, in delta order.
+ * The result is written to a sibling temp file and moved over the original, so the file is
+ * never left half written. Total cost is O(n + m) for n file records and m delta records.
+ */
+public final class JsonUpsert {
+    private static final ObjectMapper mapper = JsonStreamSupport.mapper;
+
+    private JsonUpsert() {
+    }
+
+    /**
+     * @param filePath Path to the JSON file (root should be an array)
+     * @param keyPath Path of the key in each record, compared by {@link JsonNode#asText()}
+     * @param delta Records to insert or replace; for duplicate keys the last one wins
+     * @param options Output format, buffering and fsync settings
+     * @return Counts of replaced and inserted records
+     * @throws JsonUtilsException if a delta record has no key, or on read/write failure
+     */
+    static Result merge(String filePath, String keyPath, Collection<? extends JsonNode> delta,
+                        JsonWriteOptions options) throws JsonUtilsException {
+        CompiledJsonPath path = CompiledJsonPath.compile(keyPath);
+        Map<String, JsonNode> pending = new LinkedHashMap<>();
+        for (JsonNode record : delta) {
+            JsonNode key = path.evaluate(record);
+            if (key == null || key.isMissingNode() || key.isNull()) {
+                throw new JsonUtilsException("Delta record has no value at key path " + keyPath + ": " + record);
+            }
+            pending.put(key.asText(), record);
+        }
+        Map<String, JsonNode> unseen = new LinkedHashMap<>(pending);
+        String[] fields = path.fieldNames();
+
+        long replaced = 0;
+        Path target = Paths.get(filePath);
+        Path temp = null;
+        try (JsonParser parser = JsonStreamSupport.openArray(filePath)) {
+            temp = JsonStreamSupport.createSiblingTemp(target);
+            try (FileOutputStream file = new FileOutputStream(temp.toFile());
+                 JsonGenerator generator = options.createGenerator(mapper, file)) {
+                generator.writeStartArray();
+                while (parser.nextToken() != JsonToken.END_ARRAY) {
+                    JsonNode replacement;
+                    if (fields != null) {
+                        replacement = copyOrReplace(parser, generator, fields, pending, unseen);
+                    } else {
+                        JsonNode record = mapper.readTree(parser);
+                        JsonNode key = record == null ? null : path.evaluate(record);
+                        replacement = key == null ? null : pending.get(key.asText());
+                        if (replacement == null) {
+                            mapper.writeTree(generator, record);
+                        } else {
+                            unseen.remove(key.asText());
+                        }
+                    }
+                    if (replacement != null) {
+                        mapper.writeTree(generator, replacement);
+                        replaced++;
+                    }
+                }
+                for (JsonNode addition : unseen.values()) {
+                    mapper.writeTree(generator, addition);
+                }
+                generator.writeEndArray();
+                generator.flush();
+                options.sync(file);
+            }
+            JsonStreamSupport.replaceWith(temp, target);
+        } catch (IOException e) {
+            JsonStreamSupport.deleteQuietly(temp);
+            throw new JsonUtilsException("Failed to upsert records into JSON file: " + filePath, e);
+        }
+        return new Result(replaced, unseen.size());
+    }
+
+    /**
+     * Buffers the current record's tokens, looks up its key at token level and either copies
+     * the tokens through unchanged or returns the delta record that replaces it.
+     */
+    private static JsonNode copyOrReplace(JsonParser parser, JsonGenerator generator, String[] fields,
+                                          Map<String, JsonNode> pending, Map<String, JsonNode> unseen) throws IOException {
+        TokenBuffer buffer = new TokenBuffer(parser);
+        buffer.copyCurrentStructure(parser);
+        String key = null;
+        try (JsonParser recordParser = buffer.asParser()) {
+            if (recordParser.nextToken() == JsonToken.START_OBJECT) {
+                key = JsonStreamSupport.textAtPath(recordParser, fields);
+            }
+        }
+        JsonNode replacement = key == null ? null : pending.get(key);
+        if (replacement != null) {
+            unseen.remove(key);
+            return replacement;
+        }
+        try (JsonParser recordParser = buffer.asParser()) {
+            recordParser.nextToken();
+            generator.copyCurrentStructure(recordParser);
+        }
+        return null;
+    }
+
+    /**
+     * Outcome of an upsert.
+     */
+    public static class Result {
+        private final long replaced;
+        private final long inserted;
+
+        Result(long replaced, long inserted) {
+            this.replaced = replaced;
+            this.inserted = inserted;
+        }
+
+        /**
+         * @return Number of file records replaced by a delta record
+         */
+        public long getReplaced() {
+            return replaced;
+        }
+
+        /**
+         * @return Number of delta records appended because their key was not in the file
+         */
+        public long getInserted() {
+            return inserted;
+        }
+    }
+}
@@ -2,9 +2,9 @@ package org.json.utils.jsonUtils;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Paths;
@@ -16,14 +16,19 @@ import java.util.function.Predicate;
  */
 public class JsonUtils {
     private static final ObjectMapper mapper = new ObjectMapper();
+    private static final ObjectWriter prettyWriter = mapper.writerWithDefaultPrettyPrinter();
 
     // --- File Operations ---
     public static void createJsonFile(String filePath, String jsonContent) throws JsonUtilsException {
+        createJsonFile(filePath, jsonContent, JsonWriteOptions.DEFAULT);
+    }
+
+    public static void createJsonFile(String filePath, String jsonContent, JsonWriteOptions options) throws JsonUtilsException {
         File file = new File(filePath);
         if (file.exists()) {
             throw new JsonUtilsException("File already exists: " + filePath);
         }
-        writeJsonFile(filePath, jsonContent);
+        writeJsonFile(filePath, jsonContent, options);
     }
 
     public static String readJsonFile(String filePath) throws JsonUtilsException {
@@ -35,8 +40,12 @@ public class JsonUtils {
     }
 
     public static void writeJsonFile(String filePath, String jsonContent) throws JsonUtilsException {
-        try (FileWriter writer = new FileWriter(filePath, false)) {
-            writer.write(jsonContent);
+        writeJsonFile(filePath, jsonContent, JsonWriteOptions.DEFAULT);
+    }
+
+    public static void writeJsonFile(String filePath, String jsonContent, JsonWriteOptions options) throws JsonUtilsException {
+        try {
+            options.writeText(filePath, jsonContent);
         } catch (IOException e) {
             throw new JsonUtilsException("Failed to write file: " + filePath, e);
         }
@@ -46,6 +55,10 @@ public class JsonUtils {
         writeJsonFile(filePath, jsonContent);
     }
 
+    public static void updateJsonFile(String filePath, String jsonContent, JsonWriteOptions options) throws JsonUtilsException {
+        writeJsonFile(filePath, jsonContent, options);
+    }
+
     // --- In-memory Data Operations ---
     public static JsonNode parseJsonFromFile(String filePath) throws JsonUtilsException {
         try {
@@ -56,21 +69,49 @@ public class JsonUtils {
     }
 
     public static void objectToJsonFile(String filePath, Object obj) throws JsonUtilsException {
+        objectToJsonFile(filePath, obj, JsonWriteOptions.PRETTY);
+    }
+
+    public static void objectToJsonFile(String filePath, Object obj, JsonWriteOptions options) throws JsonUtilsException {
         try {
-            mapper.writerWithDefaultPrettyPrinter().writeValue(new File(filePath), obj);
+            options.writeValue(mapper, filePath, obj);
         } catch (IOException e) {
             throw new JsonUtilsException("Failed to write object to JSON file: " + filePath, e);
         }
     }
 
     public static void addRecord(String filePath, JsonNode newRecord) throws JsonUtilsException {
+        addRecord(filePath, newRecord, JsonWriteOptions.PRETTY);
+    }
+
+    public static void addRecord(String filePath, JsonNode newRecord, JsonWriteOptions options) throws JsonUtilsException {
         JsonNode root = parseJsonFromFile(filePath);
         if (!(root instanceof ArrayNode)) {
             throw new JsonUtilsException("Root is not a JSON array: " + filePath);
         }
         ArrayNode array = (ArrayNode) root;
         array.add(newRecord);
-        objectToJsonFile(filePath, array);
+        objectToJsonFile(filePath, array, options);
+    }
+
+    public static void appendRecord(String filePath, JsonNode newRecord) throws JsonUtilsException {
+        appendRecords(filePath, List.of(newRecord));
+    }
+
+    public static void appendRecord(String filePath, JsonNode newRecord, JsonWriteOptions options) throws JsonUtilsException {
+        appendRecords(filePath, List.of(newRecord), options);
+    }
+
+    public static void appendRecords(String filePath, List<? extends JsonNode> newRecords) throws JsonUtilsException {
+        appendRecords(filePath, newRecords, JsonWriteOptions.PRETTY);
+    }
+
+    public static void appendRecords(String filePath, List<? extends JsonNode> newRecords, JsonWriteOptions options) throws JsonUtilsException {
+        try {
+            JsonArrayAppender.append(Paths.get(filePath), newRecords, options);
+        } catch (IOException e) {
+            throw new JsonUtilsException("Failed to append records to JSON file: " + filePath, e);
+        }
     }
 
     // --- Query Operations ---
@@ -87,56 +128,24 @@ public class JsonUtils {
     }
 
     public static List<JsonNode> searchByNestedPath(JsonNode root, String path, String value) {
-        List<JsonNode> result = new ArrayList<>();
-        String[] keys = path.split("\\.");
-        if (root.isArray()) {
-            for (JsonNode node : root) {
-                JsonNode current = node;
-                for (String key : keys) {
-                    if (current.has(key)) {
-                        current = current.get(key);
-                    } else {
-                        current = null;
-                        break;
-                    }
-                }
-                if (current != null && value.equals(current.asText())) {
-                    result.add(node);
-                }
-            }
-        }
-        return result;
+        return JsonQueryUtils.searchByNestedPath(root, CompiledJsonPath.compile(path), value);
     }
 
     // --- Validation & Formatting ---
     public static String prettyPrint(JsonNode node) {
         try {
-            return mapper.writerWithDefaultPrettyPrinter().writeValueAsString(node);
+            return prettyWriter.writeValueAsString(node);
         } catch (Exception e) {
             return node.toString();
         }
     }
 
     public static boolean isValidJson(String jsonContent) {
-        try {
-            mapper.readTree(jsonContent);
-            return true;
-        } catch (Exception e) {
-            return false;
-        }
+        return JsonValidationUtils.isValidJson(jsonContent);
     }
 
     public static boolean isEmptyOrMalformed(String filePath) {
-        try {
-            File file = new File(filePath);
-            if (!file.exists() || file.length() == 0) {
-                return true;
-            }
-            String content = new String(Files.readAllBytes(file.toPath()));
-            return !isValidJson(content);
-        } catch (Exception e) {
-            return true;
-        }
+        return JsonValidationUtils.isEmptyOrMalformed(filePath);
     }
 
     // --- Exception as static inner class ---
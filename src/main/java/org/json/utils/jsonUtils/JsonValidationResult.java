@@ -0,0 +1,69 @@
+package org.json.utils.jsonUtils;
+
+/**
+ * Outcome of validating JSON content, with the location of the first error when invalid.
+ * Line and column are 1-based; offsets are -1 when not known.
+ */
+public class JsonValidationResult {
+    private static final JsonValidationResult VALID = new JsonValidationResult(true, null, -1, -1, -1, -1);
+
+    private final boolean valid;
+    private final String message;
+    private final int line;
+    private final int column;
+    private final long byteOffset;
+    private final long charOffset;
+
+    JsonValidationResult(boolean valid, String message, int line, int column, long byteOffset, long charOffset) {
+        this.valid = valid;
+        this.message = message;
+        this.line = line;
+        this.column = column;
+        this.byteOffset = byteOffset;
+        this.charOffset = charOffset;
+    }
+
+    static JsonValidationResult valid() {
+        return VALID;
+    }
+
+    static JsonValidationResult invalid(String message) {
+        return new JsonValidationResult(false, message, -1, -1, -1, -1);
+    }
+
+    public boolean isValid() {
+        return valid;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public int getLine() {
+        return line;
+    }
+
+    public int getColumn() {
+        return column;
+    }
+
+    public long getByteOffset() {
+        return byteOffset;
+    }
+
+    public long getCharOffset() {
+        return charOffset;
+    }
+
+    @Override
+    public String toString() {
+        if (valid) {
+            return "valid";
+        }
+        if (line < 0) {
+            return "invalid: " + message;
+        }
+        return "invalid at line " + line + ", column " + column
+                + (byteOffset >= 0 ? ", byte " + byteOffset : "") + ": " + message;
+    }
+}
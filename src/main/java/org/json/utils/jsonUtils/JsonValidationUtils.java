@@ -1,13 +1,26 @@
 package org.json.utils.jsonUtils;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonLocation;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.File;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
 
 /**
  * Utility class for JSON validation and formatting.
  */
 public class JsonValidationUtils {
     private static final ObjectMapper mapper = new ObjectMapper();
+    private static final JsonFactory factory = mapper.getFactory();
 
     /**
      * Pretty prints JSON content.
@@ -23,34 +36,109 @@ public class JsonValidationUtils {
     }
 
     /**
-     * Validates JSON syntax.
+     * Validates JSON syntax by streaming tokens, without building a tree.
      * @param jsonContent JSON string
      * @return true if valid, false otherwise
      */
     public static boolean isValidJson(String jsonContent) {
-        try {
-            mapper.readTree(jsonContent);
-            return true;
-        } catch (Exception e) {
+        if (jsonContent == null) {
+            return false;
+        }
+        try (JsonParser parser = factory.createParser(jsonContent)) {
+            return scan(parser, true).isValid();
+        } catch (IOException e) {
             return false;
         }
     }
 
     /**
      * Checks if a file is empty or contains malformed JSON.
+     * The file is streamed from disk, so memory use does not depend on its size.
      * @param filePath Path to the file
      * @return true if empty or malformed, false otherwise
      */
     public static boolean isEmptyOrMalformed(String filePath) {
+        return !validateFile(filePath).isValid();
+    }
+
+    /**
+     * Validates JSON content and reports where the first error is.
+     * @param jsonContent JSON string
+     * @return Validation result with line/column of the first error when invalid
+     */
+    public static JsonValidationResult validateJson(String jsonContent) {
+        if (jsonContent == null) {
+            return JsonValidationResult.invalid("No JSON content");
+        }
+        try (JsonParser parser = factory.createParser(jsonContent)) {
+            return scan(parser, false);
+        } catch (IOException e) {
+            return JsonValidationResult.invalid(e.getMessage());
+        }
+    }
+
+    /**
+     * Validates a JSON file by streaming its tokens, reporting line, column and byte offset of the first error.
+     * Empty and missing files are reported as invalid.
+     * @param filePath Path to the file
+     * @return Validation result
+     */
+    public static JsonValidationResult validateFile(String filePath) {
+        File file = new File(filePath);
+        if (!file.exists() || file.length() == 0) {
+            return JsonValidationResult.invalid("File is missing or empty: " + filePath);
+        }
+        try (JsonParser parser = factory.createParser(file)) {
+            return scan(parser, false);
+        } catch (IOException e) {
+            return JsonValidationResult.invalid("Failed to read file: " + filePath + " (" + e.getMessage() + ")");
+        }
+    }
+
+    /**
+     * Validates several files in parallel on the common fork/join pool.
+     * @param filePaths Paths to validate
+     * @return Results keyed by path, in input order
+     */
+    public static Map<String, JsonValidationResult> validateFiles(Collection<String> filePaths) {
+        return validateFiles(filePaths, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Validates several files in parallel on the given pool.
+     * @param filePaths Paths to validate
+     * @param pool Pool to run the validation on
+     * @return Results keyed by path, in input order
+     */
+    public static Map<String, JsonValidationResult> validateFiles(Collection<String> filePaths, ForkJoinPool pool) {
+        List<String> paths = List.copyOf(filePaths);
+        List<JsonValidationResult> results = pool.submit(() ->
+                paths.parallelStream().map(JsonValidationUtils::validateFile).collect(Collectors.toList())).join();
+        Map<String, JsonValidationResult> byPath = new LinkedHashMap<>();
+        for (int i = 0; i < paths.size(); i++) {
+            byPath.put(paths.get(i), results.get(i));
+        }
+        return byPath;
+    }
+
+    /**
+     * Reads the first root value token by token, skipping over its children.
+     * @param allowEmpty Whether content without any value counts as valid
+     */
+    private static JsonValidationResult scan(JsonParser parser, boolean allowEmpty) throws IOException {
         try {
-            java.io.File file = new java.io.File(filePath);
-            if (!file.exists() || file.length() == 0) {
-                return true;
+            if (parser.nextToken() == null) {
+                return allowEmpty ? JsonValidationResult.valid() : JsonValidationResult.invalid("No JSON content");
             }
-            String content = new String(java.nio.file.Files.readAllBytes(file.toPath()));
-            return !isValidJson(content);
-        } catch (Exception e) {
-            return true;
+            parser.skipChildren();
+            return JsonValidationResult.valid();
+        } catch (JsonProcessingException e) {
+            JsonLocation location = e.getLocation();
+            if (location == null) {
+                return JsonValidationResult.invalid(e.getOriginalMessage());
+            }
+            return new JsonValidationResult(false, e.getOriginalMessage(), location.getLineNr(),
+                    location.getColumnNr(), location.getByteOffset(), location.getCharOffset());
         }
     }
 }
@@ -0,0 +1,140 @@
+package org.json.utils.jsonUtils;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Options for writing JSON files. Instances are immutable; the {@code with...} methods return copies.
+ * Output is always UTF-8 and goes through one buffered stream and one generator per write.
+ * The default is compact output with a 64 KiB buffer and no fsync.
+ */
+public final class JsonWriteOptions {
+    /** Compact output, 64 KiB buffer, no fsync. */
+    public static final JsonWriteOptions DEFAULT = new JsonWriteOptions(false, 1 << 16, false);
+    /** Same as {@link #DEFAULT} but pretty printed. */
+    public static final JsonWriteOptions PRETTY = DEFAULT.withPretty(true);
+
+    private final boolean pretty;
+    private final int bufferSize;
+    private final boolean fsync;
+
+    private JsonWriteOptions(boolean pretty, int bufferSize, boolean fsync) {
+        this.pretty = pretty;
+        this.bufferSize = bufferSize;
+        this.fsync = fsync;
+    }
+
+    /**
+     * @param pretty Whether to pretty print (indent) the output
+     * @return Copy with the given setting
+     */
+    public JsonWriteOptions withPretty(boolean pretty) {
+        return new JsonWriteOptions(pretty, bufferSize, fsync);
+    }
+
+    /**
+     * @param bufferSize Size in bytes of the output buffer
+     * @return Copy with the given setting
+     * @throws IllegalArgumentException if bufferSize is not positive
+     */
+    public JsonWriteOptions withBufferSize(int bufferSize) {
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("Buffer size must be positive: " + bufferSize);
+        }
+        return new JsonWriteOptions(pretty, bufferSize, fsync);
+    }
+
+    /**
+     * @param fsync Whether to force written data to the storage device before returning
+     * @return Copy with the given setting
+     */
+    public JsonWriteOptions withFsync(boolean fsync) {
+        return new JsonWriteOptions(pretty, bufferSize, fsync);
+    }
+
+    public boolean isPretty() {
+        return pretty;
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    public boolean isFsync() {
+        return fsync;
+    }
+
+    /**
+     * Serializes a value to a file (overwrites if exists).
+     * @param mapper Mapper providing the generator factory and serializers
+     * @param filePath Path to the file
+     * @param value Value to serialize
+     * @throws IOException if writing fails
+     */
+    void writeValue(ObjectMapper mapper, String filePath, Object value) throws IOException {
+        try (FileOutputStream file = new FileOutputStream(filePath);
+             JsonGenerator generator = createGenerator(mapper, file)) {
+            mapper.writeValue(generator, value);
+            generator.flush();
+            sync(file);
+        }
+    }
+
+    /**
+     * Writes JSON text to a file as UTF-8 (overwrites if exists). The text is written as given;
+     * the pretty setting does not apply.
+     * @param filePath Path to the file
+     * @param content JSON content
+     * @throws IOException if writing fails
+     */
+    void writeText(String filePath, String content) throws IOException {
+        try (FileOutputStream file = new FileOutputStream(filePath);
+             Writer out = new BufferedWriter(new OutputStreamWriter(file, StandardCharsets.UTF_8), bufferSize)) {
+            out.write(content);
+            out.flush();
+            sync(file);
+        }
+    }
+
+    /**
+     * Creates a UTF-8 generator over a buffered view of the stream, pretty printing if requested.
+     * Closing the generator closes the stream.
+     * @param mapper Mapper providing the generator factory
+     * @param out Target stream
+     * @return New generator
+     * @throws IOException if the generator cannot be created
+     */
+    JsonGenerator createGenerator(ObjectMapper mapper, OutputStream out) throws IOException {
+        JsonGenerator generator = mapper.getFactory()
+                .createGenerator(new BufferedOutputStream(out, bufferSize), JsonEncoding.UTF8);
+        if (pretty) {
+            generator.useDefaultPrettyPrinter();
+        }
+        return generator;
+    }
+
+    /**
+     * Forces the file's content to storage if fsync is enabled. Flush any buffers first.
+     * @param file Stream of the written file
+     * @throws IOException if the sync fails
+     */
+    void sync(FileOutputStream file) throws IOException {
+        if (fsync) {
+            file.getFD().sync();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "JsonWriteOptions{pretty=" + pretty + ", bufferSize=" + bufferSize + ", fsync=" + fsync + "}";
+    }
+}
@@ -0,0 +1,61 @@
+package org.json.utils.csvUtils;
+
+import com.opencsv.CSVReader;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CsvByteTokenizerTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void splitsRowsLikeOpenCsv() throws Exception {
+        String[] inputs = {
+                "a,bc\"d\"ef,g",
+                "a,  \"x\",b",
+                "ab\"c\"d,e",
+                " \"x  \"a",
+                "x,\"q\"\"r\",z",
+                "\\bax\\,x",
+                "a\\,,,,\\bxx",
+                "a,\"b\nc\"d\"e\",f\r\ng,h",
+        };
+        for (String input : inputs) {
+            List<String[]> expected;
+            try (CSVReader reader = new CSVReader(new StringReader(input))) {
+                expected = reader.readAll();
+            }
+            CsvByteTokenizer tokenizer = new CsvByteTokenizer(
+                    ByteBuffer.wrap(input.getBytes(StandardCharsets.UTF_8)), StandardCharsets.UTF_8);
+            for (String[] row : expected) {
+                assertEquals(true, tokenizer.nextRow(), input);
+                assertArrayEquals(row, tokenizer.fields(), input);
+            }
+            assertEquals(false, tokenizer.nextRow(), input);
+        }
+    }
+
+    @Test
+    void indexedLookupMatchesScanForMidFieldQuotes() throws Exception {
+        Path file = dir.resolve("quotes.csv");
+        Files.writeString(file, "id,name\n1,bc\"d\"ef\n2,bcdef\n", StandardCharsets.UTF_8);
+        String path = file.toString();
+
+        List<Map<String, String>> scanned = CsvUtils.searchByColumn(path, "name", "bc\"d\"ef");
+        assertEquals(List.of(Map.of("id", "1", "name", "bc\"d\"ef")), scanned);
+
+        CsvUtils.createIndex(path, "name");
+        assertEquals(scanned, CsvUtils.searchByColumn(path, "name", "bc\"d\"ef"));
+        assertEquals(List.of(Map.of("id", "2", "name", "bcdef")), CsvUtils.searchByColumn(path, "name", "bcdef"));
+    }
+}
@@ -0,0 +1,50 @@
+package org.json.utils.csvUtils;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CsvFileIndexTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void readsRowsInBlockCreatedByAppend() throws Exception {
+        String path = dir.resolve("rows.csv").toString();
+        List<Map<String, String>> rows = new ArrayList<>();
+        for (int i = 0; i < CsvFileIndex.STRIDE; i++) {
+            rows.add(Map.of("id", "r" + i));
+        }
+        CsvUtils.writeCsvFile(path, List.of("id"), rows);
+        assertEquals(CsvFileIndex.STRIDE, CsvUtils.countRecords(path));
+
+        CsvUtils.addRecord(path, Map.of("id", "first"));
+        assertEquals(List.of(Map.of("id", "first")), CsvUtils.readRows(path, CsvFileIndex.STRIDE, 1));
+
+        CsvUtils.addRecords(path, List.of(Map.of("id", "second"), Map.of("id", "third")));
+        assertEquals(CsvFileIndex.STRIDE + 3, CsvUtils.countRecords(path));
+        assertEquals(List.of(Map.of("id", "second"), Map.of("id", "third")),
+                CsvUtils.readRows(path, CsvFileIndex.STRIDE + 1, 5));
+    }
+
+    @Test
+    void readsRowsAfterAppendSpanningSeveralBlocks() throws Exception {
+        String path = dir.resolve("blocks.csv").toString();
+        CsvUtils.createCsvFile(path, List.of("id"));
+        CsvUtils.addRecord(path, Map.of("id", "r0"));
+        assertEquals(1, CsvUtils.countRecords(path));
+
+        List<Map<String, String>> rows = new ArrayList<>();
+        for (int i = 1; i <= 2 * CsvFileIndex.STRIDE; i++) {
+            rows.add(Map.of("id", "r" + i));
+        }
+        CsvUtils.addRecords(path, rows);
+        assertEquals(2 * CsvFileIndex.STRIDE + 1, CsvUtils.countRecords(path));
+        assertEquals(List.of(Map.of("id", "r" + 2 * CsvFileIndex.STRIDE)),
+                CsvUtils.readRows(path, 2 * CsvFileIndex.STRIDE, 1));
+    }
+}
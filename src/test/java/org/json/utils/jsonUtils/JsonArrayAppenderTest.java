@@ -0,0 +1,46 @@
+package org.json.utils.jsonUtils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class JsonArrayAppenderTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void concurrentAppendsToOneFileAllLand() throws Exception {
+        Path file = dir.resolve("records.json");
+        Files.writeString(file, "[]");
+        int appends = 400;
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < appends; i++) {
+                JsonNode record = JsonStreamSupport.mapper.createObjectNode().put("id", i);
+                futures.add(pool.submit(() -> {
+                    JsonDataUtils.appendRecord(file.toString(), record);
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        JsonNode root = JsonStreamSupport.mapper.readTree(file.toFile());
+        assertEquals(appends, root.size());
+        Set<Integer> ids = new HashSet<>();
+        root.forEach(record -> ids.add(record.get("id").asInt()));
+        assertEquals(appends, ids.size());
+    }
+}